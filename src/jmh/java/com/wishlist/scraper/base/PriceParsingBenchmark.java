@@ -0,0 +1,44 @@
+package com.wishlist.scraper.base;
+
+import com.wishlist.scraper.impl.KabumScraper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalização de preço em formatos que aparecem nas páginas das lojas.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceParsingBenchmark {
+
+    @Param({"R$ 1.299,90", "R$ 1.899,99", "1.899", "R$ 49,90"})
+    public String raw;
+
+    private final BaseScraper scraper = new KabumScraper();
+
+    @Benchmark
+    public BigDecimal parsePrice() {
+        return scraper.parsePrice(raw);
+    }
+
+    /** Caminho usado pelo AliExpress, que aceita também o formato americano. */
+    @Benchmark
+    public BigDecimal parseAuto() {
+        return PriceParser.parse(raw);
+    }
+}
@@ -0,0 +1,139 @@
+package com.wishlist.scraper.base;
+
+import com.wishlist.model.enums.Loja;
+import com.wishlist.scraper.impl.AliExpressScraper;
+import com.wishlist.scraper.impl.AmazonScraper;
+import com.wishlist.scraper.impl.KabumScraper;
+import com.wishlist.scraper.impl.MercadoLivreScraper;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extração offline sobre as páginas gravadas em src/jmh/resources/fixtures.
+ *
+ * Rodar com: mvn -Pjmh test-compile exec:exec
+ * (o profile já passa -prof gc, que mostra a taxa de alocação por operação)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScraperBenchmark {
+
+    @Param({"AMAZON", "KABUM", "MERCADO_LIVRE", "ALIEXPRESS"})
+    public Loja loja;
+
+    private BaseScraper scraper;
+    private String url;
+    private String html;
+    private Document doc;
+
+    private List<String> priceQueries;
+    private CompiledSelectors priceSelectors;
+    private CompiledSelectors imageSelectors;
+
+    @Setup
+    public void setup() throws IOException {
+        switch (loja) {
+            case AMAZON -> {
+                scraper = new AmazonScraper();
+                url = "https://www.amazon.com.br/dp/B0EXEMPLO01";
+                html = fixture("amazon.html");
+                priceQueries = List.of("span.a-price span.a-offscreen", "span.a-price-whole", "span:matches(R\\$)");
+                imageSelectors = CompiledSelectors.of("meta[property=og:image]", "#imgTagWrapperId img", "img[data-old-hires]", "img");
+            }
+            case KABUM -> {
+                scraper = new KabumScraper();
+                url = "https://www.kabum.com.br/produto/512345/placa-de-video-rtx-4060";
+                html = fixture("kabum.html");
+                priceQueries = List.of("h4.text-4xl.text-secondary-500.font-bold", "h4.text-secondary-500", "[class*='text-secondary'][class*='font-bold']", "h4:matches(R\\$)");
+                imageSelectors = CompiledSelectors.of("meta[property=og:image]", "img[src*='kabum']", "img[data-src*='kabum']", "img");
+            }
+            case MERCADO_LIVRE -> {
+                scraper = new MercadoLivreScraper();
+                url = "https://produto.mercadolivre.com.br/MLB-1234567890-smartphone-galaxy-a55";
+                html = fixture("mercado-livre.html");
+                priceQueries = List.of("meta[itemprop=price]", "span.andes-money-amount__fraction", "span:matches(R\\$)");
+                imageSelectors = CompiledSelectors.of("img[data-zoom]", "meta[property=og:image]", "img");
+            }
+            case ALIEXPRESS -> {
+                scraper = new AliExpressScraper();
+                url = "https://pt.aliexpress.com/item/1005001234567890.html";
+                html = fixture("aliexpress.html");
+                priceQueries = List.of("div.product-price-value", "span.product-price-value", "div.product-price-current", "span[class*=snow-price]", "div[class*=price] span");
+                imageSelectors = CompiledSelectors.of("meta[property=og:image]", "meta[name=twitter:image]", "img.magnifier-image", "img[class*=magnifier]", "div.image-view-magnifier-wrap img");
+            }
+            default -> throw new IllegalStateException("Loja sem fixture: " + loja);
+        }
+
+        priceSelectors = CompiledSelectors.of(priceQueries.toArray(String[]::new));
+        doc = Jsoup.parse(html, url);
+    }
+
+    /** Seletores pré-compilados (como os scrapers fazem hoje). */
+    @Benchmark
+    public String findFirstText() {
+        return scraper.findFirstText(doc, priceSelectors);
+    }
+
+    /** Mesmo trabalho com seletores em String, reparseados a cada chamada (código anterior). */
+    @Benchmark
+    public String findFirstTextStringQueries() {
+        for (String query : priceQueries) {
+            Elements elements = doc.select(query);
+            if (!elements.isEmpty()) {
+                String text = elements.first().text();
+                if (text != null && !text.isBlank()) {
+                    return text;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String extractImageWithFallback() {
+        return scraper.extractImageWithFallback(doc, imageSelectors);
+    }
+
+    @Benchmark
+    public BigDecimal extractPrice() {
+        return scraper.extractPrice(doc, url);
+    }
+
+    /** Parse do HTML mais a extração completa, como num scraping real sem a rede. */
+    @Benchmark
+    public Object parseAndScrape() {
+        return scraper.scrape(Jsoup.parse(html, url), url);
+    }
+
+    private static String fixture(String nome) throws IOException {
+        try (InputStream in = ScraperBenchmark.class.getResourceAsStream("/fixtures/" + nome)) {
+            if (in == null) {
+                throw new IOException("Fixture não encontrada: " + nome);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.wishlist.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches de leitura (Caffeine). Tamanho, TTL e estatísticas ficam em
+ * spring.cache.caffeine.spec; as invalidações, no InvalidadorCache.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUTO = "produto";
+    public static final String PRODUTOS_POR_LISTA = "produtosPorLista";
+    public static final String TOTAL_LISTA = "totalLista";
+    public static final String LISTAS = "listas";
+}
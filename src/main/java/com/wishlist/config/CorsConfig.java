@@ -18,7 +18,8 @@ public class CorsConfig {
                                 "https://trevs-wishly.netlify.app",
                                 "http://localhost:4200"
                         )
-                        .allowedMethods("*");
+                        .allowedMethods("*")
+                        .exposedHeaders("X-Total-Count", "Location");
             }
         };
     }
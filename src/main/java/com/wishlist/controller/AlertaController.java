@@ -0,0 +1,65 @@
+package com.wishlist.controller;
+
+import com.wishlist.model.dto.AlertaRequestDTO;
+import com.wishlist.model.dto.AlertaResponseDTO;
+import com.wishlist.service.AlertaService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/alertas")
+@CrossOrigin
+public class AlertaController {
+
+    private final AlertaService alertaService;
+
+    public AlertaController(AlertaService alertaService) {
+        this.alertaService = alertaService;
+    }
+
+    /**
+     * tipo: PRECO_ALVO (valor = preço alvo), QUEDA_PERCENTUAL (valor = % sobre o preço atual)
+     * ou MENOR_PRECO_HISTORICO (sem valor).
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public AlertaResponseDTO criar(@RequestBody AlertaRequestDTO dto) {
+        return alertaService.criar(dto);
+    }
+
+    @GetMapping
+    public List<AlertaResponseDTO> listar(@RequestParam(required = false) Long produtoId) {
+        return alertaService.listar(produtoId);
+    }
+
+    @GetMapping("/{id}")
+    public AlertaResponseDTO buscar(@PathVariable Long id) {
+        return alertaService.buscarPorId(id);
+    }
+
+    @PutMapping("/{id}")
+    public AlertaResponseDTO atualizar(@PathVariable Long id, @RequestBody AlertaRequestDTO dto) {
+        return alertaService.atualizar(id, dto);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void remover(@PathVariable Long id) {
+        alertaService.remover(id);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleIllegalArgument(IllegalArgumentException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> handleRuntimeException(RuntimeException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+}
@@ -0,0 +1,55 @@
+package com.wishlist.controller;
+
+import com.wishlist.model.dto.AtualizacaoResponseDTO;
+import com.wishlist.service.AtualizacaoService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/atualizacoes")
+@CrossOrigin
+public class AtualizacaoController {
+
+    private final AtualizacaoService atualizacaoService;
+
+    public AtualizacaoController(AtualizacaoService atualizacaoService) {
+        this.atualizacaoService = atualizacaoService;
+    }
+
+    /**
+     * Estado e progresso por produto de uma atualização de preços pedida em
+     * /produtos/{id}/atualizar-preco-automatico ou /produtos/lista/{listaId}/atualizar-precos.
+     */
+    @GetMapping("/{id}")
+    public AtualizacaoResponseDTO buscar(@PathVariable String id) {
+        return atualizacaoService.buscar(id);
+    }
+
+    /**
+     * Os mesmos eventos do fluxo de /produtos/lista/{listaId}/atualizar-precos/stream para
+     * uma atualização já criada, a partir do primeiro produto concluído; não dispara coleta.
+     * Depois do "fim" o EventSource reconecta com Last-Event-ID "fim" e recebe 204, que o
+     * faz parar.
+     */
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> acompanhar(
+            @PathVariable String id,
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEvento
+    ) {
+        if (AtualizacaoService.ID_ULTIMO_EVENTO.equals(ultimoEvento)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(atualizacaoService.acompanhar(id));
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> handleRuntimeException(RuntimeException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+}
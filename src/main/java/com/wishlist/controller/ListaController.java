@@ -6,7 +6,6 @@ import com.wishlist.service.ListaService;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/listas")
@@ -21,19 +20,7 @@ public class ListaController {
 
     @GetMapping
     public List<ListaResponseDTO> listar() {
-        List<Lista> listas = listaService.listarTodas();
-
-        return listas.stream()
-                .map(lista -> {
-                    ListaResponseDTO dto = new ListaResponseDTO();
-                    dto.setId(lista.getId());
-                    dto.setNome(lista.getNome());
-                    dto.setDescricao(lista.getDescricao());
-                    dto.setCreatedAt(lista.getCreatedAt());
-                    dto.setTotalProdutos(lista.getProdutos().size());
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return listaService.listarResumos();
     }
 
     @PostMapping
@@ -1,29 +1,49 @@
 package com.wishlist.controller;
 
+import com.wishlist.model.dto.AtualizacaoResponseDTO;
+import com.wishlist.model.dto.PrecoOhlcResponseDTO;
 import com.wishlist.model.dto.ProdutoPrecoHistoricoResponseDTO;
 import com.wishlist.model.dto.ProdutoRequestDTO;
 import com.wishlist.model.dto.ProdutoResponseDTO;
-import com.wishlist.model.entity.Produto;
+import com.wishlist.service.AtualizacaoService;
 import com.wishlist.service.ProdutoService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.net.URI;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/produtos")
 @CrossOrigin
 public class ProdutoController {
 
+    private static final Set<String> ORDENACOES =
+            Set.of("id", "nome", "loja", "precoAtual", "ultimaAtualizacao");
+
+    // Quem precisa de tudo usa a listagem sem página, que sai do cache
+    private static final int TAMANHO_MAXIMO_PAGINA = 200;
+
     private final ProdutoService produtoService;
+    private final AtualizacaoService atualizacaoService;
 
-    public ProdutoController(ProdutoService produtoService) {
+    public ProdutoController(ProdutoService produtoService, AtualizacaoService atualizacaoService) {
         this.produtoService = produtoService;
+        this.atualizacaoService = atualizacaoService;
     }
 
     // ==================== CRUD BÁSICO ====================
@@ -51,10 +71,40 @@ public class ProdutoController {
 
     // ==================== LISTAGEM ====================
 
+    /**
+     * Sem parâmetros devolve a lista inteira. Com ?page=&size= devolve só a página e o
+     * total no cabeçalho X-Total-Count (size de 1 a 200); ?sort=precoAtual,desc ordena
+     * (com ou sem página).
+     */
     @GetMapping("/lista/{listaId}")
-    public ResponseEntity<List<Produto>> listarPorLista(@PathVariable Long listaId) {
-        List<Produto> produtos = produtoService.listarPorLista(listaId);
-        return ResponseEntity.ok(produtos);
+    public ResponseEntity<List<ProdutoResponseDTO>> listarPorLista(
+            @PathVariable Long listaId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") int size,
+            Sort sort
+    ) {
+        for (Sort.Order ordem : sort) {
+            if (!ORDENACOES.contains(ordem.getProperty())) {
+                throw new IllegalArgumentException("Ordenação inválida: " + ordem.getProperty());
+            }
+        }
+        if (size < 1 || size > TAMANHO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("size deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+        }
+
+        if (page == null && sort.isUnsorted()) {
+            return ResponseEntity.ok(produtoService.listarPorLista(listaId));
+        }
+
+        Pageable pageable = page == null
+                ? Pageable.unpaged(sort)
+                : PageRequest.of(page, size, sort);
+
+        Page<ProdutoResponseDTO> produtos = produtoService.listarPorLista(listaId, pageable);
+
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(produtos.getTotalElements()))
+                .body(produtos.getContent());
     }
 
     @GetMapping("/{id}")
@@ -65,35 +115,67 @@ public class ProdutoController {
 
     // ==================== ATUALIZAÇÕES DE PREÇO ====================
 
+    // As atualizações rodam em segundo plano: a resposta é 202 com a atualização
+    // criada, e o progresso fica em GET /atualizacoes/{id} (cabeçalho Location)
+
     @PutMapping("/{id}/atualizar-preco-automatico")
-    public ResponseEntity<ProdutoResponseDTO> atualizarPrecoAutomatico(
+    public ResponseEntity<AtualizacaoResponseDTO> atualizarPrecoAutomatico(
             @PathVariable Long id
     ) {
-        ProdutoResponseDTO response = produtoService.atualizarPrecoAutomatico(id);
-        return ResponseEntity.ok(response);
+        return aceita(atualizacaoService.atualizarProduto(id));
     }
 
     @PostMapping("/lista/{listaId}/atualizar-precos")
-    public ResponseEntity<List<ProdutoResponseDTO>> atualizarPrecosDaLista(
+    public ResponseEntity<AtualizacaoResponseDTO> atualizarPrecosDaLista(
             @PathVariable Long listaId
     ) {
-        List<ProdutoResponseDTO> produtos = produtoService.atualizarPrecosDaLista(listaId);
-        return ResponseEntity.ok(produtos);
+        return aceita(atualizacaoService.atualizarLista(listaId));
+    }
+
+    /**
+     * Atualiza a lista e devolve cada produto como evento SSE assim que ele termina:
+     * "produto" (ProdutoResponseDTO), "erro" ({produtoId, error} com o motivo) e, por último,
+     * "fim" com os totais. Responde 503 se o teto de fluxos simultâneos já foi atingido.
+     * Pelo navegador (EventSource só faz GET), crie a atualização com POST
+     * /lista/{listaId}/atualizar-precos e acompanhe em GET /atualizacoes/{id}/stream.
+     */
+    @PostMapping(value = "/lista/{listaId}/atualizar-precos/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter atualizarPrecosDaListaEmFluxo(@PathVariable Long listaId) {
+        return atualizacaoService.transmitirLista(listaId);
+    }
+
+    private static ResponseEntity<AtualizacaoResponseDTO> aceita(AtualizacaoResponseDTO atualizacao) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/atualizacoes/" + atualizacao.getId()))
+                .body(atualizacao);
     }
 
     // ==================== HISTÓRICO ====================
 
+    /**
+     * Sem parâmetros extras devolve todos os pontos do período. ?maxPoints=300 reduz a
+     * no máximo 300 pontos (LTTB); ?bucket=1d devolve OHLC por dia (ou 15m, 6h, 1w...),
+     * e junto com maxPoints o intervalo cresce até caber nessa quantidade.
+     */
     @GetMapping("/{produtoId}/historico")
-    public ResponseEntity<List<ProdutoPrecoHistoricoResponseDTO>> obterHistoricoPreco(
+    public ResponseEntity<List<?>> obterHistoricoPreco(
             @PathVariable Long produtoId,
             @RequestParam("dataInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
-            @RequestParam("dataFim") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim
+            @RequestParam("dataFim") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestParam(required = false) String bucket
     ) {
-        List<ProdutoPrecoHistoricoResponseDTO> historico = produtoService.obterHistoricoPreco(
-                produtoId,
-                dataInicio.atStartOfDay(),
-                dataFim.atTime(23, 59, 59)
-        );
+        LocalDateTime inicio = dataInicio.atStartOfDay();
+        LocalDateTime fim = dataFim.atTime(23, 59, 59);
+
+        if (bucket != null) {
+            List<PrecoOhlcResponseDTO> ohlc =
+                    produtoService.obterHistoricoOhlc(produtoId, inicio, fim, bucket, maxPoints);
+            return ResponseEntity.ok(ohlc);
+        }
+
+        List<ProdutoPrecoHistoricoResponseDTO> historico =
+                produtoService.obterHistoricoPreco(produtoId, inicio, fim, maxPoints);
         return ResponseEntity.ok(historico);
     }
 
@@ -115,6 +197,12 @@ public class ProdutoController {
         return Map.of("error", ex.getMessage());
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, String> handleRejectedExecution(RejectedExecutionException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public Map<String, String> handleRuntimeException(RuntimeException ex) {
@@ -0,0 +1,26 @@
+package com.wishlist.controller;
+
+import com.wishlist.scraper.base.StoreCircuitBreaker;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/scrapers")
+@CrossOrigin
+public class ScraperController {
+
+    private final StoreCircuitBreaker circuitBreaker;
+
+    public ScraperController(StoreCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Estado do circuit breaker de cada loja.
+     */
+    @GetMapping("/circuitos")
+    public List<StoreCircuitBreaker.Situacao> circuitos() {
+        return circuitBreaker.situacao();
+    }
+}
@@ -1,28 +1,33 @@
 package com.wishlist.job;
 
-import com.wishlist.service.ProdutoService;
+import com.wishlist.service.AgendadorAtualizacao;
+import com.wishlist.service.RelatorioAtualizacao;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 @Component
 public class AtualizacaoPrecoJob {
 
-    private final ProdutoService produtoService;
+    private final AgendadorAtualizacao agendadorAtualizacao;
 
-    public AtualizacaoPrecoJob(ProdutoService produtoService) {
-        this.produtoService = produtoService;
+    public AtualizacaoPrecoJob(AgendadorAtualizacao agendadorAtualizacao) {
+        this.agendadorAtualizacao = agendadorAtualizacao;
     }
 
     /**
-     * Executa a cada 6 horas
+     * A cada rodada atualiza só os produtos cuja próxima coleta venceu,
+     * dentro do orçamento por hora (ver AgendadorAtualizacao).
      */
-    @Scheduled(cron = "0 0 */6 * * *")
+    @Scheduled(
+            fixedDelayString = "${wishlist.agendamento.rodada-ms:60000}",
+            initialDelayString = "${wishlist.agendamento.rodada-ms:60000}"
+    )
     public void executarAtualizacaoDePrecos() {
 
-        System.out.println("[JOB] Iniciando atualização automática de preços");
+        RelatorioAtualizacao relatorio = agendadorAtualizacao.executarPendentes();
 
-        produtoService.atualizarPrecosAutomaticamente();
-
-        System.out.println("[JOB] Atualização automática finalizada");
+        if (relatorio != null) {
+            System.out.println("[JOB] Atualização automática finalizada: " + relatorio.resumo());
+        }
     }
 }
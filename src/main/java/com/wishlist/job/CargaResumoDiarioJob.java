@@ -0,0 +1,144 @@
+package com.wishlist.job;
+
+import com.wishlist.service.ResumoDiarioPrecos;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga inicial de produto_preco_diario com o histórico gravado antes de o resumo existir.
+ *
+ * Roda em segundo plano a partir do estado em produto_preco_diario_carga (criado pela
+ * migração V5): só conta históricos até o id de corte, que são os que o upsert da
+ * aplicação nunca viu, e avança por faixas de produtos gravando o progresso na mesma
+ * transação de cada faixa. Se a aplicação parar ou uma faixa falhar, a próxima tentativa
+ * (na subida seguinte ou após o intervalo configurado) continua de onde parou. Ao
+ * terminar, libera as consultas OHLC para lerem o resumo (ResumoDiarioPrecos).
+ */
+@Component
+public class CargaResumoDiarioJob {
+
+    private static final String CARGA_FAIXA = """
+            INSERT INTO produto_preco_diario
+                (produto_id, dia, minimo, maximo, primeiro, ultimo, amostras, primeira_coleta, ultima_coleta)
+            SELECT produto_id, dia, MIN(preco), MAX(preco),
+                   MAX(CASE WHEN ordem_asc = 1 THEN preco END),
+                   MAX(CASE WHEN ordem_desc = 1 THEN preco END),
+                   COUNT(*), MIN(data_coleta), MAX(data_coleta)
+            FROM (
+                SELECT produto_id, DATE(data_coleta) AS dia, preco, data_coleta,
+                       ROW_NUMBER() OVER (PARTITION BY produto_id, DATE(data_coleta)
+                                          ORDER BY data_coleta, id) AS ordem_asc,
+                       ROW_NUMBER() OVER (PARTITION BY produto_id, DATE(data_coleta)
+                                          ORDER BY data_coleta DESC, id DESC) AS ordem_desc
+                FROM produto_preco_historico
+                WHERE produto_id > ? AND produto_id <= ? AND id <= ?
+            ) h
+            GROUP BY produto_id, dia
+            """ + ResumoDiarioPrecos.FUSAO;
+
+    private final ResumoDiarioPrecos resumoDiarioPrecos;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int produtosPorFaixa;
+    private final long intervaloTentativaMs;
+    private final ScheduledExecutorService agendador;
+
+    public CargaResumoDiarioJob(
+            ResumoDiarioPrecos resumoDiarioPrecos,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${wishlist.resumo-diario.carga.produtos-por-faixa:100}") int produtosPorFaixa,
+            @Value("${wishlist.resumo-diario.carga.intervalo-tentativa-ms:60000}") long intervaloTentativaMs
+    ) {
+        this.resumoDiarioPrecos = resumoDiarioPrecos;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.produtosPorFaixa = produtosPorFaixa;
+        this.intervaloTentativaMs = intervaloTentativaMs;
+
+        this.agendador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "carga-resumo-diario");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Começa na subida e repete a cada intervalo até a carga terminar; cada tentativa
+     * retoma do último produto gravado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        agendador.scheduleWithFixedDelay(this::executarComSeguranca, 0, intervaloTentativaMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdownNow();
+    }
+
+    private void executarComSeguranca() {
+        try {
+            executar();
+            resumoDiarioPrecos.marcarCargaConcluida();
+            agendador.shutdown();
+        } catch (Exception e) {
+            System.err.println(
+                    "[RESUMO DIÁRIO] Carga interrompida: " + e.getMessage()
+                            + "; nova tentativa em " + intervaloTentativaMs + " ms"
+            );
+        }
+    }
+
+    private void executar() {
+        Map<String, Object> carga = jdbcTemplate.queryForMap(
+                "SELECT corte_historico_id, ultimo_produto_id, concluida FROM produto_preco_diario_carga WHERE id = 1"
+        );
+        if ((Boolean) carga.get("concluida")) {
+            return;
+        }
+
+        long corte = ((Number) carga.get("corte_historico_id")).longValue();
+        long ultimoProduto = ((Number) carga.get("ultimo_produto_id")).longValue();
+        long faixas = 0;
+
+        System.out.println("[RESUMO DIÁRIO] Carga iniciada a partir do produto " + ultimoProduto);
+
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM produto WHERE id > ? ORDER BY id LIMIT ?",
+                    Long.class,
+                    ultimoProduto,
+                    produtosPorFaixa
+            );
+
+            if (ids.isEmpty()) {
+                jdbcTemplate.update("UPDATE produto_preco_diario_carga SET concluida = TRUE WHERE id = 1");
+                System.out.println("[RESUMO DIÁRIO] Carga concluída em " + faixas + " faixas");
+                return;
+            }
+
+            long de = ultimoProduto;
+            long ate = ids.get(ids.size() - 1);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(CARGA_FAIXA, de, ate, corte);
+                jdbcTemplate.update("UPDATE produto_preco_diario_carga SET ultimo_produto_id = ? WHERE id = 1", ate);
+            });
+
+            ultimoProduto = ate;
+            faixas++;
+        }
+    }
+}
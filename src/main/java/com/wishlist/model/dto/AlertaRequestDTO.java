@@ -0,0 +1,17 @@
+package com.wishlist.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class AlertaRequestDTO {
+
+    private Long produtoId;
+    private String tipo;
+    private BigDecimal valor;
+    private Boolean ativo;
+
+}
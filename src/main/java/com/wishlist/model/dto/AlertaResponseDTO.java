@@ -0,0 +1,23 @@
+package com.wishlist.model.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertaResponseDTO {
+    private Long id;
+    private Long produtoId;
+    private String tipo;
+    private BigDecimal valor;
+    private BigDecimal precoReferencia;
+    private Boolean ativo;
+    private Boolean disparado;
+    private LocalDateTime ultimoDisparo;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,26 @@
+package com.wishlist.model.dto;
+
+import com.wishlist.model.enums.EstadoAtualizacao;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AtualizacaoResponseDTO {
+    private String id;
+    private Long listaId;
+    private Long produtoId;
+    private EstadoAtualizacao estado;
+    private Integer total;
+    private Integer concluidos;
+    private LocalDateTime criadaEm;
+    private LocalDateTime iniciadaEm;
+    private LocalDateTime concluidaEm;
+    private String erro;
+    private List<ItemAtualizacaoResponseDTO> itens;
+}
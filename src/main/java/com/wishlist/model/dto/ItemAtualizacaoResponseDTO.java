@@ -0,0 +1,18 @@
+package com.wishlist.model.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemAtualizacaoResponseDTO {
+    private Long produtoId;
+    private String nome;
+    // PENDENTE enquanto não termina; depois o desfecho do motor (PRECO_ALTERADO, PRECO_MANTIDO, FALHA)
+    private String estado;
+    private BigDecimal precoAtual;
+}
@@ -2,6 +2,7 @@ package com.wishlist.model.dto;
 
 import lombok.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -15,4 +16,19 @@ public class ListaResponseDTO {
     private String descricao;
     private LocalDateTime createdAt;
     private Integer totalProdutos;
+    private BigDecimal valorTotal;
+
+    /**
+     * Usado pela consulta agregada do ListaRepository (COUNT devolve Long).
+     */
+    public ListaResponseDTO(
+            Long id,
+            String nome,
+            String descricao,
+            LocalDateTime createdAt,
+            Long totalProdutos,
+            BigDecimal valorTotal
+    ) {
+        this(id, nome, descricao, createdAt, totalProdutos.intValue(), valorTotal);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.wishlist.model.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Preço de um intervalo do histórico: abertura, máxima, mínima e fechamento.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrecoOhlcResponseDTO {
+    private LocalDateTime inicio;
+    private BigDecimal abertura;
+    private BigDecimal maxima;
+    private BigDecimal minima;
+    private BigDecimal fechamento;
+    // Quantas mudanças de preço caíram no intervalo
+    private Integer amostras;
+}
@@ -1,6 +1,8 @@
 package com.wishlist.model.dto;
 
+import com.wishlist.model.enums.Loja;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
@@ -8,6 +10,7 @@ import java.time.LocalDateTime;
 
 @Getter
 @Setter
+@NoArgsConstructor
 public class ProdutoResponseDTO {
 
     private Long id;
@@ -20,4 +23,29 @@ public class ProdutoResponseDTO {
     private Long listaId;
     private String listaNome;
 
+    /**
+     * Usado pela projeção do ProdutoRepository.
+     */
+    public ProdutoResponseDTO(
+            Long id,
+            String nome,
+            String link,
+            Loja loja,
+            BigDecimal precoAtual,
+            String imagemUrl,
+            LocalDateTime ultimaAtualizacao,
+            Long listaId,
+            String listaNome
+    ) {
+        this.id = id;
+        this.nome = nome;
+        this.link = link;
+        this.loja = loja != null ? loja.name() : null;
+        this.precoAtual = precoAtual;
+        this.imagemUrl = imagemUrl;
+        this.ultimaAtualizacao = ultimaAtualizacao;
+        this.listaId = listaId;
+        this.listaNome = listaNome;
+    }
+
 }
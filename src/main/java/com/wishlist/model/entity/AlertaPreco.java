@@ -0,0 +1,61 @@
+package com.wishlist.model.entity;
+
+import com.wishlist.model.enums.TipoAlerta;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Só as colunas alteradas entram no UPDATE: ativar ou desativar o alerta não regrava
+ * disparado e referência com o que foi lido, já que o AvaliadorAlertas os atualiza por fora.
+ */
+@Entity
+@DynamicUpdate
+@Table(name = "alerta_preco")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertaPreco {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoAlerta tipo;
+
+    // Preço alvo (PRECO_ALVO) ou percentual de queda (QUEDA_PERCENTUAL)
+    @Column(precision = 10, scale = 2)
+    private BigDecimal valor;
+
+    // Preço de onde a queda é medida (QUEDA_PERCENTUAL) ou o menor já visto (MENOR_PRECO_HISTORICO)
+    @Column(name = "preco_referencia", precision = 10, scale = 2)
+    private BigDecimal precoReferencia;
+
+    @Column(nullable = false)
+    private boolean ativo;
+
+    // Já disparou e só volta a disparar depois que o preço sair da condição
+    @Column(nullable = false)
+    private boolean disparado;
+
+    @Column(name = "ultimo_disparo")
+    private LocalDateTime ultimoDisparo;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
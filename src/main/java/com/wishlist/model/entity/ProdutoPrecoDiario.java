@@ -0,0 +1,62 @@
+package com.wishlist.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Resumo diário do histórico de um produto, mantido a cada histórico gravado
+ * (ver ResumoDiarioPrecos). Só leitura pelo JPA: as gravações são upserts via JDBC.
+ */
+@Entity
+@Table(name = "produto_preco_diario")
+@IdClass(ProdutoPrecoDiario.Chave.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProdutoPrecoDiario {
+
+    @Id
+    @Column(name = "produto_id")
+    private Long produtoId;
+
+    @Id
+    private LocalDate dia;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal minimo;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal maximo;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal primeiro;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal ultimo;
+
+    @Column(nullable = false)
+    private Integer amostras;
+
+    @Column(name = "primeira_coleta", nullable = false)
+    private LocalDateTime primeiraColeta;
+
+    @Column(name = "ultima_coleta", nullable = false)
+    private LocalDateTime ultimaColeta;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Chave implements Serializable {
+        private Long produtoId;
+        private LocalDate dia;
+    }
+}
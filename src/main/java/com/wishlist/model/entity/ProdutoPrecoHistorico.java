@@ -7,7 +7,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "produto_preco_historico")
+@Table(
+        name = "produto_preco_historico",
+        // Atende às buscas por produto e intervalo de datas já na ordem de data_coleta
+        indexes = @Index(name = "idx_historico_produto_data", columnList = "produto_id, data_coleta, preco")
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,10 +24,15 @@ public class ProdutoPrecoHistorico {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "produto_id", nullable = false)
+    // Sem FK no banco: a tabela é particionada por data_coleta (ver db/migration)
+    @JoinColumn(
+            name = "produto_id",
+            nullable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)
+    )
     private Produto produto;
 
-    @Column(nullable = false)
+    @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal preco;
 
     @Column(nullable = false)
@@ -0,0 +1,8 @@
+package com.wishlist.model.enums;
+
+public enum EstadoAtualizacao {
+    PENDENTE,
+    EXECUTANDO,
+    CONCLUIDA,
+    FALHOU
+}
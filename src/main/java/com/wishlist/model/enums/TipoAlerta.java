@@ -0,0 +1,10 @@
+package com.wishlist.model.enums;
+
+public enum TipoAlerta {
+    // Preço chega ao valor alvo ou abaixo
+    PRECO_ALVO,
+    // Preço cai pelo menos valor% em relação ao preço de referência
+    QUEDA_PERCENTUAL,
+    // Preço fica abaixo do menor já registrado no histórico
+    MENOR_PRECO_HISTORICO
+}
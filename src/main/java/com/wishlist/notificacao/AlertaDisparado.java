@@ -0,0 +1,23 @@
+package com.wishlist.notificacao;
+
+import com.wishlist.model.enums.TipoAlerta;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Alerta que disparou: a regra, o produto e o preço que a satisfez.
+ * {@code limite} é o preço que precisava ser alcançado.
+ */
+public record AlertaDisparado(
+        Long alertaId,
+        Long produtoId,
+        String nome,
+        String link,
+        TipoAlerta tipo,
+        BigDecimal valor,
+        BigDecimal limite,
+        BigDecimal preco,
+        LocalDateTime momento
+) {
+}
@@ -0,0 +1,10 @@
+package com.wishlist.notificacao;
+
+/**
+ * Destino dos alertas de preço disparados. Todo bean que implementa esta interface
+ * recebe cada alerta, fora da thread que gravou o preço.
+ */
+public interface NotificadorAlerta {
+
+    void notificar(AlertaDisparado alerta);
+}
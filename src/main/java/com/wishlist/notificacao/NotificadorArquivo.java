@@ -0,0 +1,46 @@
+package com.wishlist.notificacao;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Acrescenta cada alerta como uma linha JSON no arquivo configurado em
+ * wishlist.alertas.arquivo. Útil para testes e para integrações que leem o arquivo.
+ */
+@Component
+@ConditionalOnProperty(name = "wishlist.alertas.arquivo")
+public class NotificadorArquivo implements NotificadorAlerta {
+
+    private final Path arquivo;
+    private final JsonMapper jsonMapper;
+
+    public NotificadorArquivo(@Value("${wishlist.alertas.arquivo}") String arquivo, JsonMapper jsonMapper) {
+        this.arquivo = Path.of(arquivo);
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public synchronized void notificar(AlertaDisparado alerta) {
+        try {
+            String linha = jsonMapper.writeValueAsString(alerta) + System.lineSeparator();
+            Files.writeString(
+                    arquivo,
+                    linha,
+                    StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND
+            );
+        } catch (IOException | JacksonException e) {
+            System.err.println("[ALERTA] Erro ao gravar em " + arquivo + ": " + e.getMessage());
+        }
+    }
+}
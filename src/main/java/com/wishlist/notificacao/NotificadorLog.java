@@ -0,0 +1,18 @@
+package com.wishlist.notificacao;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "wishlist.alertas.log", havingValue = "true", matchIfMissing = true)
+public class NotificadorLog implements NotificadorAlerta {
+
+    @Override
+    public void notificar(AlertaDisparado alerta) {
+        System.out.println(
+                "[ALERTA] " + alerta.tipo() + " #" + alerta.alertaId()
+                        + " - produto " + alerta.produtoId() + " (" + alerta.nome() + ")"
+                        + " a R$ " + alerta.preco() + ", limite R$ " + alerta.limite()
+        );
+    }
+}
@@ -0,0 +1,26 @@
+package com.wishlist.repository;
+
+import com.wishlist.model.entity.AlertaPreco;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface AlertaPrecoRepository extends JpaRepository<AlertaPreco, Long> {
+
+    List<AlertaPreco> findByAtivoTrue();
+
+    List<AlertaPreco> findByProdutoIdOrderById(Long produtoId);
+
+    @Modifying
+    @Query("DELETE FROM AlertaPreco a WHERE a.produtoId = :produtoId")
+    void deleteByProdutoId(Long produtoId);
+
+    @Modifying
+    @Query("""
+            DELETE FROM AlertaPreco a
+            WHERE a.produtoId IN (SELECT p.id FROM Produto p WHERE p.lista.id = :listaId)
+            """)
+    void deleteByListaId(Long listaId);
+}
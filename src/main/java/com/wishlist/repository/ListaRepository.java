@@ -1,7 +1,26 @@
 package com.wishlist.repository;
 
+import com.wishlist.model.dto.ListaResponseDTO;
 import com.wishlist.model.entity.Lista;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface ListaRepository extends JpaRepository<Lista, Long> {
+
+    /**
+     * Resumo de todas as listas (quantidade e soma dos preços) num único SELECT agrupado,
+     * sem carregar os produtos.
+     */
+    @Query("""
+            SELECT new com.wishlist.model.dto.ListaResponseDTO(
+                l.id, l.nome, l.descricao, l.createdAt, COUNT(p), COALESCE(SUM(p.precoAtual), 0)
+            )
+            FROM Lista l
+            LEFT JOIN l.produtos p
+            GROUP BY l.id, l.nome, l.descricao, l.createdAt
+            ORDER BY l.id
+            """)
+    List<ListaResponseDTO> buscarResumos();
 }
@@ -0,0 +1,35 @@
+package com.wishlist.repository;
+
+import com.wishlist.model.entity.ProdutoPrecoDiario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+public interface ProdutoPrecoDiarioRepository
+        extends JpaRepository<ProdutoPrecoDiario, ProdutoPrecoDiario.Chave> {
+
+    /**
+     * Dias do período em ordem. Exige transação aberta, e o Stream deve ser fechado pelo chamador.
+     */
+    @Query("""
+            SELECT d FROM ProdutoPrecoDiario d
+            WHERE d.produtoId = :produtoId
+              AND d.dia BETWEEN :inicio AND :fim
+            ORDER BY d.dia
+            """)
+    Stream<ProdutoPrecoDiario> buscarDias(Long produtoId, LocalDate inicio, LocalDate fim);
+
+    @Modifying
+    @Query("DELETE FROM ProdutoPrecoDiario d WHERE d.produtoId = :produtoId")
+    void deleteByProdutoId(Long produtoId);
+
+    @Modifying
+    @Query("""
+            DELETE FROM ProdutoPrecoDiario d
+            WHERE d.produtoId IN (SELECT p.id FROM Produto p WHERE p.lista.id = :listaId)
+            """)
+    void deleteByListaId(Long listaId);
+}
@@ -1,11 +1,18 @@
 package com.wishlist.repository;
 
+import com.wishlist.model.dto.ProdutoPrecoHistoricoResponseDTO;
 import com.wishlist.model.entity.ProdutoPrecoHistorico;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProdutoPrecoHistoricoRepository
         extends JpaRepository<ProdutoPrecoHistorico, Long> {
@@ -13,11 +20,88 @@ public interface ProdutoPrecoHistoricoRepository
     Optional<ProdutoPrecoHistorico>
     findTopByProdutoIdOrderByDataColetaDesc(Long produtoId);
 
-    boolean existsByProdutoId(Long produtoId);
+    /**
+     * Pares [produtoId, preco] com o registro mais recente de cada produto.
+     */
+    @Query("""
+            SELECT h.produto.id, h.preco
+            FROM ProdutoPrecoHistorico h
+            WHERE h.id IN (
+                SELECT MAX(h2.id) FROM ProdutoPrecoHistorico h2 GROUP BY h2.produto.id
+            )
+            """)
+    List<Object[]> buscarUltimoPrecoDeCadaProduto();
 
+    /**
+     * Pares [produtoId, quantidade] de históricos gravados desde a data informada.
+     * Como só se grava histórico quando o preço muda, é o número de mudanças no período.
+     */
+    @Query("""
+            SELECT h.produto.id, COUNT(h)
+            FROM ProdutoPrecoHistorico h
+            WHERE h.dataColeta >= :desde
+            GROUP BY h.produto.id
+            """)
+    List<Object[]> contarMudancasDesde(LocalDateTime desde);
+
+    @Modifying
+    @Query("DELETE FROM ProdutoPrecoHistorico h WHERE h.produto.id = :produtoId")
     void deleteByProdutoId(Long produtoId);
 
-    List<ProdutoPrecoHistorico> findByProdutoIdAndDataColetaBetweenOrderByDataColetaAsc(
+    /**
+     * O banco não tem FK do histórico para produto, então a remoção de uma lista
+     * apaga explicitamente o histórico dos produtos dela.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM ProdutoPrecoHistorico h
+            WHERE h.produto.id IN (SELECT p.id FROM Produto p WHERE p.lista.id = :listaId)
+            """)
+    void deleteByListaId(Long listaId);
+
+    /**
+     * Menor preço já registrado do produto, ou null se ele não tem histórico.
+     */
+    @Query("SELECT MIN(h.preco) FROM ProdutoPrecoHistorico h WHERE h.produto.id = :produtoId")
+    BigDecimal buscarMenorPreco(Long produtoId);
+
+    /**
+     * Par [primeira, última] dataColeta do produto no período; só lê o índice (produto_id, data_coleta, preco).
+     */
+    @Query("""
+            SELECT MIN(h.dataColeta), MAX(h.dataColeta)
+            FROM ProdutoPrecoHistorico h
+            WHERE h.produto.id = :produtoId
+              AND h.dataColeta BETWEEN :inicio AND :fim
+            """)
+    List<Object[]> buscarLimites(Long produtoId, LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Preço em vigor no momento informado: o do último histórico antes dele, ou null se não há.
+     */
+    @Query("""
+            SELECT h.preco
+            FROM ProdutoPrecoHistorico h
+            WHERE h.produto.id = :produtoId
+              AND h.dataColeta < :momento
+            ORDER BY h.dataColeta DESC
+            LIMIT 1
+            """)
+    BigDecimal buscarPrecoVigente(Long produtoId, LocalDateTime momento);
+
+    /**
+     * Pontos [preco, dataColeta] do período em ordem de data, lidos aos poucos do cursor.
+     * Exige transação aberta, e o Stream deve ser fechado pelo chamador.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("""
+            SELECT new com.wishlist.model.dto.ProdutoPrecoHistoricoResponseDTO(h.preco, h.dataColeta)
+            FROM ProdutoPrecoHistorico h
+            WHERE h.produto.id = :produtoId
+              AND h.dataColeta BETWEEN :inicio AND :fim
+            ORDER BY h.dataColeta
+            """)
+    Stream<ProdutoPrecoHistoricoResponseDTO> buscarPontos(
             Long produtoId,
             LocalDateTime inicio,
             LocalDateTime fim
@@ -1,6 +1,11 @@
 package com.wishlist.repository;
 
+import com.wishlist.model.dto.ProdutoResponseDTO;
 import com.wishlist.model.entity.Produto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -9,8 +14,34 @@ import java.util.List;
 
 public interface ProdutoRepository extends JpaRepository<Produto, Long> {
 
+    @EntityGraph(attributePaths = "lista")
     List<Produto> findByListaId(Long listaId);
 
+    /**
+     * Produtos da lista já no formato da resposta, com o nome da lista no mesmo SELECT.
+     * Aceita paginação e ordenação pelos atributos de Produto (nome, precoAtual...).
+     */
+    @Query(
+            value = """
+                    SELECT new com.wishlist.model.dto.ProdutoResponseDTO(
+                        p.id, p.nome, p.link, p.loja, p.precoAtual, p.imagemUrl,
+                        p.ultimaAtualizacao, l.id, l.nome
+                    )
+                    FROM Produto p
+                    JOIN p.lista l
+                    WHERE l.id = :listaId
+                    """,
+            countQuery = "SELECT COUNT(p) FROM Produto p WHERE p.lista.id = :listaId"
+    )
+    Page<ProdutoResponseDTO> buscarResumosPorLista(Long listaId, Pageable pageable);
+
     @Query("SELECT COALESCE(SUM(p.precoAtual), 0) FROM Produto p WHERE p.lista.id = :listaId")
     BigDecimal calcularTotalPorLista(Long listaId);
+
+    /**
+     * Trios [id, loja, ultimaAtualizacao] para montar a agenda de atualização, com paginação
+     * por chave (id > ultimoId): custo constante por lote, sem OFFSET nem COUNT.
+     */
+    @Query("SELECT p.id, p.loja, p.ultimaAtualizacao FROM Produto p WHERE p.id > :ultimoId ORDER BY p.id")
+    List<Object[]> buscarAgendaAposId(Long ultimoId, Limit limite);
 }
@@ -1,18 +1,38 @@
 package com.wishlist.scraper;
 
 import com.wishlist.model.enums.Loja;
+import com.wishlist.scraper.base.PartialPagePlan;
+import org.jsoup.nodes.Document;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public interface PriceScraper {
 
-    boolean supports(String url);
-
     Loja getLoja();
 
+    /**
+     * Domínios atendidos pelo scraper; subdomínios (www., produto., pt.) entram junto.
+     */
+    List<String> getDominios();
+
     BigDecimal extractPrice(String url);
 
     String extractName(String url);
 
     String extractImage(String url);
+
+    /**
+     * Baixa a página uma única vez e extrai preço, nome e imagem do mesmo Document.
+     */
+    ScrapeResult scrape(String url);
+
+    ScrapeResult scrape(Document doc, String url);
+
+    /**
+     * Trechos da página de que o scraper precisa. Null (padrão) baixa a página inteira.
+     */
+    default PartialPagePlan partialPagePlan() {
+        return null;
+    }
 }
@@ -0,0 +1,52 @@
+package com.wishlist.scraper;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Preço, nome e imagem extraídos de um único download da página do produto.
+ * Em coletas condicionais, notModified indica que a página não mudou e nada foi extraído.
+ */
+@Getter
+public class ScrapeResult {
+
+    private static final ScrapeResult NOT_MODIFIED = new ScrapeResult(true, null, null, null, null);
+
+    private final boolean notModified;
+    private final BigDecimal price;
+    private final String priceError;
+    private final String name;
+    private final String image;
+
+    public ScrapeResult(BigDecimal price, String priceError, String name, String image) {
+        this(false, price, priceError, name, image);
+    }
+
+    private ScrapeResult(
+            boolean notModified,
+            BigDecimal price,
+            String priceError,
+            String name,
+            String image
+    ) {
+        this.notModified = notModified;
+        this.price = price;
+        this.priceError = priceError;
+        this.name = name;
+        this.image = image;
+    }
+
+    public static ScrapeResult notModified() {
+        return NOT_MODIFIED;
+    }
+
+    public BigDecimal requirePrice() {
+        if (price == null) {
+            throw new RuntimeException(
+                    priceError != null ? priceError : "Preço não encontrado na página"
+            );
+        }
+        return price;
+    }
+}
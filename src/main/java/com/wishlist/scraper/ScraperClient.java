@@ -0,0 +1,321 @@
+package com.wishlist.scraper;
+
+import com.wishlist.model.enums.Loja;
+import com.wishlist.scraper.base.AsyncSemaphore;
+import com.wishlist.scraper.base.CircuitoAbertoException;
+import com.wishlist.scraper.base.FetchedPage;
+import com.wishlist.scraper.base.PageFetchException;
+import com.wishlist.scraper.base.PageFetcher;
+import com.wishlist.scraper.base.PartialPagePlan;
+import com.wishlist.scraper.base.StoreCircuitBreaker;
+import com.wishlist.scraper.base.StoreCircuitBreaker.Admissao;
+import com.wishlist.scraper.base.StoreRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Ponto único de acesso às lojas: todo scraping passa pelo circuit breaker, pelo
+ * rate limiter e pelo limite de requisições simultâneas de cada loja.
+ *
+ * Falhas transitórias de download (rede, timeout, 429, 5xx) são repetidas com espera
+ * exponencial enquanto houver orçamento de retentativas na loja. O circuito admite cada
+ * requisição (retentativas incluídas) só depois da permissão da loja e da vez no rate
+ * limiter, imediatamente antes do download, e conta o resultado do download. Página sem
+ * preço não é falha da loja: vai para uma contagem à parte no circuito e na métrica.
+ *
+ * Métricas por loja: wishlist.scraper.download (tempo de rede, sem a espera do rate
+ * limiter), wishlist.scraper.extracao (parse + extração), wishlist.scraper.pagina.bytes
+ * e wishlist.scraper.resultados, com a tag resultado. wishlist.scraper.pagina.inteira conta
+ * as páginas truncadas sem preço que foram baixadas de novo por inteiro.
+ */
+@Component
+public class ScraperClient {
+
+    private final StoreRateLimiter rateLimiter;
+    private final StoreCircuitBreaker circuitBreaker;
+    private final PageFetcher pageFetcher;
+    private final Map<Loja, AsyncSemaphore> permissoesPorLoja = new EnumMap<>(Loja.class);
+    private final Map<Loja, Metricas> metricasPorLoja = new EnumMap<>(Loja.class);
+    private final int maximoRetentativas;
+    private final long esperaRetentativaMs;
+
+    public ScraperClient(
+            StoreRateLimiter rateLimiter,
+            StoreCircuitBreaker circuitBreaker,
+            PageFetcher pageFetcher,
+            MeterRegistry meterRegistry,
+            @Value("${wishlist.scraper.concorrencia-por-loja:4}") int concorrenciaPorLoja,
+            @Value("${wishlist.scraper.retentativas.maximo:2}") int maximoRetentativas,
+            @Value("${wishlist.scraper.retentativas.espera-inicial-ms:500}") long esperaRetentativaMs
+    ) {
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.pageFetcher = pageFetcher;
+        this.maximoRetentativas = maximoRetentativas;
+        this.esperaRetentativaMs = esperaRetentativaMs;
+
+        for (Loja loja : Loja.values()) {
+            permissoesPorLoja.put(loja, new AsyncSemaphore(concorrenciaPorLoja));
+            metricasPorLoja.put(loja, new Metricas(meterRegistry, loja));
+        }
+    }
+
+    /**
+     * Versão bloqueante, para as chamadas feitas a partir de requisições HTTP.
+     * Sempre baixa e extrai a página, mesmo que ela não tenha mudado.
+     */
+    public ScrapeResult scrape(PriceScraper scraper, String url) {
+        try {
+            return protegido(
+                    scraper.getLoja(),
+                    () -> baixar(scraper.getLoja(), () -> pageFetcher.fetchAsync(url, scraper.partialPagePlan())),
+                    pagina -> extrairCompleto(scraper, url, pagina, Runnable::run)
+            ).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Espera a vez da loja e o download sem ocupar thread; só o parse roda no executor informado.
+     * Se condicional, envia os validadores da última coleta e, se a página não mudou,
+     * devolve {@link ScrapeResult#notModified()}; senão sempre baixa e extrai.
+     */
+    public CompletableFuture<ScrapeResult> scrapeAsync(
+            PriceScraper scraper,
+            String url,
+            boolean condicional,
+            Executor executor
+    ) {
+        PartialPagePlan plano = scraper.partialPagePlan();
+        return protegido(
+                scraper.getLoja(),
+                () -> baixar(scraper.getLoja(), () -> condicional
+                        ? pageFetcher.fetchIfModifiedAsync(url, plano)
+                        : pageFetcher.fetchAsync(url, plano)),
+                pagina -> extrairCompleto(scraper, url, pagina, executor)
+        );
+    }
+
+    /**
+     * Esquece o que se sabe da página para coletas condicionais. Chamado quando o produto é removido.
+     */
+    public void esquecerPagina(String url) {
+        pageFetcher.esquecerValidadores(url);
+    }
+
+    private CompletableFuture<ScrapeResult> protegido(
+            Loja loja,
+            Supplier<CompletableFuture<FetchedPage>> download,
+            Function<FetchedPage, CompletableFuture<ScrapeResult>> extracao
+    ) {
+        Metricas metricas = metricasPorLoja.get(loja);
+
+        // Recusa cedo, sem esperar o rate limiter; a admissão de verdade é no download
+        try {
+            circuitBreaker.verificar(loja);
+        } catch (RuntimeException e) {
+            metricas.circuitoAberto.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return comRetentativas(loja, download, 0)
+                .thenCompose(extracao)
+                .whenComplete((resultado, erro) -> {
+                    if (erro != null) {
+                        Throwable causa = erro instanceof CompletionException && erro.getCause() != null
+                                ? erro.getCause()
+                                : erro;
+                        if (causa instanceof CircuitoAbertoException) {
+                            metricas.circuitoAberto.increment();
+                        } else {
+                            metricas.falha.increment();
+                        }
+                    } else if (resultado.isNotModified()) {
+                        metricas.inalterado.increment();
+                    } else if (resultado.getPrice() != null) {
+                        metricas.sucesso.increment();
+                        circuitBreaker.registrarExtracao(loja, true);
+                    } else {
+                        metricas.semPreco.increment();
+                        circuitBreaker.registrarExtracao(loja, false);
+                    }
+                });
+    }
+
+    private CompletableFuture<FetchedPage> comRetentativas(
+            Loja loja,
+            Supplier<CompletableFuture<FetchedPage>> download,
+            int tentativa
+    ) {
+        return download.get()
+                .handle((pagina, erro) -> {
+                    if (erro == null) {
+                        return CompletableFuture.completedFuture(pagina);
+                    }
+
+                    Throwable causa = erro instanceof CompletionException && erro.getCause() != null
+                            ? erro.getCause()
+                            : erro;
+
+                    if (tentativa >= maximoRetentativas
+                            || !(causa instanceof PageFetchException falha && falha.isTransitoria())
+                            || !circuitBreaker.gastarRetentativa(loja)) {
+                        return CompletableFuture.<FetchedPage>failedFuture(causa);
+                    }
+
+                    // Espera exponencial com jitter: sorteada entre 0 e o dobro da espera base
+                    long base = esperaRetentativaMs << tentativa;
+                    long espera = ThreadLocalRandom.current().nextLong(base * 2 + 1);
+
+                    return CompletableFuture
+                            .runAsync(() -> { }, CompletableFuture.delayedExecutor(espera, TimeUnit.MILLISECONDS))
+                            .thenCompose(v -> comRetentativas(loja, download, tentativa + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<FetchedPage> baixar(
+            Loja loja,
+            Supplier<CompletableFuture<FetchedPage>> download
+    ) {
+        Metricas metricas = metricasPorLoja.get(loja);
+
+        // A permissão vem antes da vez no rate limiter: quem pega a vez e depois fica na fila
+        // da loja gasta o token esperando e sai junto com os outros quando uma permissão volta
+        return permissoesPorLoja.get(loja).comPermissao(() -> rateLimiter.acquire(loja)
+                .thenCompose(v -> {
+                    Admissao admissao;
+                    try {
+                        admissao = circuitBreaker.admitir(loja);
+                    } catch (RuntimeException e) {
+                        return CompletableFuture.<FetchedPage>failedFuture(e);
+                    }
+
+                    long inicio = System.nanoTime();
+                    CompletableFuture<FetchedPage> requisicao;
+                    try {
+                        requisicao = download.get();
+                    } catch (RuntimeException e) {
+                        requisicao = CompletableFuture.failedFuture(e);
+                    }
+
+                    return requisicao.whenComplete((pagina, erro) -> {
+                        circuitBreaker.registrar(admissao, erro == null);
+                        metricas.download.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                        if (pagina != null && !pagina.isNotModified()) {
+                            metricas.bytes.record(pagina.getBody().length);
+                        }
+                    });
+                }));
+    }
+
+    /**
+     * Extrai da página e, se ela veio truncada pelo plano parcial e ficou sem preço,
+     * baixa a página inteira uma vez e extrai de novo: um marcador pode ter aparecido
+     * antes do trecho com o preço e encerrado a leitura cedo demais.
+     */
+    private CompletableFuture<ScrapeResult> extrairCompleto(
+            PriceScraper scraper,
+            String url,
+            FetchedPage pagina,
+            Executor executor
+    ) {
+        return CompletableFuture.supplyAsync(() -> extrair(scraper, url, pagina), executor)
+                .thenCompose(resultado -> {
+                    if (resultado.getPrice() != null || !pagina.isTruncada()) {
+                        return CompletableFuture.completedFuture(resultado);
+                    }
+                    metricasPorLoja.get(scraper.getLoja()).paginaInteira.increment();
+                    return baixar(scraper.getLoja(), () -> pageFetcher.fetchAsync(url, null))
+                            .thenApplyAsync(inteira -> extrair(scraper, url, inteira), executor);
+                });
+    }
+
+    private ScrapeResult extrair(PriceScraper scraper, String url, FetchedPage pagina) {
+        if (pagina.isNotModified()) {
+            return ScrapeResult.notModified();
+        }
+
+        long inicio = System.nanoTime();
+        ScrapeResult resultado = scraper.scrape(pagina.parse(), url);
+        metricasPorLoja.get(scraper.getLoja()).extracao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+
+        if (resultado.getPrice() != null) {
+            pageFetcher.registrarValidadores(url, pagina);
+        }
+        return resultado;
+    }
+
+    /**
+     * Medidores de uma loja, registrados uma vez para não procurar no registry a cada chamada.
+     */
+    private static final class Metricas {
+
+        final Timer download;
+        final Timer extracao;
+        final DistributionSummary bytes;
+        final Counter sucesso;
+        final Counter inalterado;
+        final Counter semPreco;
+        final Counter falha;
+        final Counter circuitoAberto;
+        final Counter paginaInteira;
+
+        Metricas(MeterRegistry registry, Loja loja) {
+            String tag = loja.name().toLowerCase(Locale.ROOT);
+
+            download = Timer.builder("wishlist.scraper.download")
+                    .description("Tempo de download da página, sem a espera do rate limiter")
+                    .tag("loja", tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            extracao = Timer.builder("wishlist.scraper.extracao")
+                    .description("Tempo de parse do HTML e extração de preço, nome e imagem")
+                    .tag("loja", tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            bytes = DistributionSummary.builder("wishlist.scraper.pagina.bytes")
+                    .description("Tamanho da página recebida, já descomprimida")
+                    .baseUnit("bytes")
+                    .tag("loja", tag)
+                    .register(registry);
+            paginaInteira = Counter.builder("wishlist.scraper.pagina.inteira")
+                    .description("Páginas truncadas pelo plano parcial e sem preço, baixadas de novo por inteiro")
+                    .tag("loja", tag)
+                    .register(registry);
+
+            sucesso = resultado(registry, tag, "sucesso");
+            inalterado = resultado(registry, tag, "inalterado");
+            semPreco = resultado(registry, tag, "sem_preco");
+            falha = resultado(registry, tag, "falha");
+            circuitoAberto = resultado(registry, tag, "circuito_aberto");
+        }
+
+        private static Counter resultado(MeterRegistry registry, String loja, String resultado) {
+            return Counter.builder("wishlist.scraper.resultados")
+                    .description("Scrapings concluídos por loja e resultado")
+                    .tag("loja", loja)
+                    .tag("resultado", resultado)
+                    .register(registry);
+        }
+    }
+}
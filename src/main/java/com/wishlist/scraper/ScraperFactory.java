@@ -1,25 +1,98 @@
 package com.wishlist.scraper;
 
 import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class ScraperFactory {
 
-    private final List<PriceScraper> scrapers;
+    // domínio (e todos os seus subdomínios) -> scraper; montado uma vez na inicialização
+    private final Map<String, PriceScraper> scrapersPorDominio = new HashMap<>();
 
     public ScraperFactory(List<PriceScraper> scrapers) {
-        this.scrapers = scrapers;
+        for (PriceScraper scraper : scrapers) {
+            for (String dominio : scraper.getDominios()) {
+                PriceScraper anterior = scrapersPorDominio.put(dominio.toLowerCase(Locale.ROOT), scraper);
+                if (anterior != null && anterior != scraper) {
+                    throw new IllegalStateException(
+                            "Domínio " + dominio + " atendido por " + anterior.getLoja()
+                                    + " e " + scraper.getLoja()
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Procura o scraper pelo host da URL: "produto.mercadolivre.com.br" tenta o host
+     * inteiro e depois cada sufixo ("mercadolivre.com.br", "com.br", "br").
+     */
+    public Optional<PriceScraper> findScraper(String url) {
+        String host = host(url);
+
+        while (host != null) {
+            PriceScraper scraper = scrapersPorDominio.get(host);
+            if (scraper != null) {
+                return Optional.of(scraper);
+            }
+
+            int ponto = host.indexOf('.');
+            host = ponto < 0 ? null : host.substring(ponto + 1);
+        }
+
+        return Optional.empty();
     }
 
     public PriceScraper getScraper(String url) {
-        return scrapers.stream()
-                .filter(scraper -> scraper.supports(url))
-                .findFirst()
+        return findScraper(url)
                 .orElseThrow(() ->
                         new IllegalArgumentException(
                                 "Nenhum scraper disponível para a URL: " + url
                         )
                 );
     }
+
+    /**
+     * Host em minúsculas, sem esquema, credenciais, porta e caminho. Não usa
+     * java.net.URI para não lançar exceção com links mal formados colados pelo usuário.
+     */
+    static String host(String url) {
+        if (url == null) {
+            return null;
+        }
+
+        int inicio = url.indexOf("://");
+        inicio = inicio < 0 ? 0 : inicio + 3;
+
+        int fim = url.length();
+        for (int i = inicio; i < fim; i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#') {
+                fim = i;
+                break;
+            }
+        }
+
+        int arroba = url.lastIndexOf('@', fim - 1);
+        if (arroba >= inicio) {
+            inicio = arroba + 1;
+        }
+
+        int doisPontos = url.indexOf(':', inicio);
+        if (doisPontos >= 0 && doisPontos < fim) {
+            fim = doisPontos;
+        }
+
+        while (fim > inicio && url.charAt(fim - 1) == '.') {
+            fim--;
+        }
+
+        String host = url.substring(inicio, fim).trim();
+        return host.isEmpty() ? null : host.toLowerCase(Locale.ROOT);
+    }
 }
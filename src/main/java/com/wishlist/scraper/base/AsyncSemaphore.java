@@ -0,0 +1,53 @@
+package com.wishlist.scraper.base;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Semáforo cujo acquire devolve um future em vez de bloquear a thread.
+ * Os pedidos são atendidos em ordem de chegada.
+ */
+public class AsyncSemaphore {
+
+    private final Queue<CompletableFuture<Void>> fila = new ArrayDeque<>();
+    private int disponiveis;
+
+    public AsyncSemaphore(int permissoes) {
+        this.disponiveis = permissoes;
+    }
+
+    public CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            if (disponiveis > 0) {
+                disponiveis--;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> vez = new CompletableFuture<>();
+            fila.add(vez);
+            return vez;
+        }
+    }
+
+    public void release() {
+        CompletableFuture<Void> proximo;
+        synchronized (this) {
+            proximo = fila.poll();
+            if (proximo == null) {
+                disponiveis++;
+                return;
+            }
+        }
+        proximo.complete(null);
+    }
+
+    /**
+     * Executa a operação assíncrona com uma permissão, devolvida quando ela termina.
+     */
+    public <T> CompletableFuture<T> comPermissao(Supplier<CompletableFuture<T>> operacao) {
+        return acquire()
+                .thenCompose(v -> operacao.get())
+                .whenComplete((resultado, erro) -> release());
+    }
+}
@@ -1,16 +1,78 @@
 package com.wishlist.scraper.base;
 
+import com.wishlist.scraper.ScrapeResult;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
-import java.util.List;
 
 public abstract class BaseScraper {
 
+    private PageFetcher pageFetcher;
+
+    /**
+     * Com o fetcher compartilhado, os downloads diretos pelo scraper também
+     * reaproveitam o pool de conexões. Sem ele (fora do Spring), usa o jsoup.
+     */
+    @Autowired(required = false)
+    public void setPageFetcher(PageFetcher pageFetcher) {
+        this.pageFetcher = pageFetcher;
+    }
+
+    public BigDecimal extractPrice(String url) {
+        return extractPrice(getDocument(url), url);
+    }
+
+    public String extractName(String url) {
+        return extractName(getDocument(url));
+    }
+
+    public String extractImage(String url) {
+        return extractImage(getDocument(url));
+    }
+
+    public ScrapeResult scrape(String url) {
+        return scrape(getDocument(url), url);
+    }
+
+    /**
+     * Extrai preço, nome e imagem do mesmo Document. Falhas de nome ou preço
+     * não interrompem a extração dos demais campos.
+     */
+    public ScrapeResult scrape(Document doc, String url) {
+        BigDecimal price = null;
+        String priceError = null;
+        try {
+            price = extractPrice(doc, url);
+        } catch (RuntimeException e) {
+            priceError = e.getMessage();
+        }
+
+        String name = null;
+        try {
+            name = extractName(doc);
+        } catch (RuntimeException e) {
+            // Nome é opcional na atualização; quem precisa dele valida o null
+        }
+
+        return new ScrapeResult(price, priceError, name, extractImage(doc));
+    }
+
+    protected abstract BigDecimal extractPrice(Document doc, String url);
+
+    protected abstract String extractName(Document doc);
+
+    protected abstract String extractImage(Document doc);
+
     protected Document getDocument(String url) {
+        if (pageFetcher != null) {
+            return pageFetcher.fetch(url).parse();
+        }
+
         try {
             return Jsoup.connect(url)
                     .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64)")
@@ -23,7 +85,7 @@ public abstract class BaseScraper {
 
     protected BigDecimal extractPriceWithFallback(
             Document doc,
-            List<String> selectors,
+            CompiledSelectors selectors,
             String errorMessage
     ) {
         String rawPrice = findFirstText(doc, selectors);
@@ -36,18 +98,12 @@ public abstract class BaseScraper {
     }
 
     protected BigDecimal parsePrice(String raw) {
-        return new BigDecimal(
-                raw.replace("R$", "")
-                        .replace("\u00A0", "")
-                        .replace(".", "")
-                        .replace(",", ".")
-                        .trim()
-        );
+        return PriceParser.parseBrl(raw);
     }
 
     protected String extractNameWithFallback(
             Document doc,
-            List<String> selectors,
+            CompiledSelectors selectors,
             String errorMessage
     ) {
         String name = findFirstText(doc, selectors);
@@ -61,9 +117,9 @@ public abstract class BaseScraper {
 
     protected String extractImageWithFallback(
             Document doc,
-            List<String> selectors
+            CompiledSelectors selectors
     ) {
-        for (String selector : selectors) {
+        for (Evaluator selector : selectors) {
             Elements images = doc.select(selector);
 
             for (Element img : images) {
@@ -79,8 +135,8 @@ public abstract class BaseScraper {
         return null;
     }
 
-    protected String findFirstText(Document doc, List<String> selectors) {
-        for (String selector : selectors) {
+    protected String findFirstText(Document doc, CompiledSelectors selectors) {
+        for (Evaluator selector : selectors) {
             Elements elements = doc.select(selector);
             if (!elements.isEmpty()) {
                 String text = elements.first().text();
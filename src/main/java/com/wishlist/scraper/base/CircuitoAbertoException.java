@@ -0,0 +1,20 @@
+package com.wishlist.scraper.base;
+
+import com.wishlist.model.enums.Loja;
+
+/**
+ * Lançada sem tentar a requisição quando o circuito da loja está aberto.
+ */
+public class CircuitoAbertoException extends RuntimeException {
+
+    private final Loja loja;
+
+    public CircuitoAbertoException(Loja loja, long esperaMs) {
+        super("Loja " + loja + " suspensa após falhas seguidas; nova tentativa em " + esperaMs / 1000 + "s");
+        this.loja = loja;
+    }
+
+    public Loja getLoja() {
+        return loja;
+    }
+}
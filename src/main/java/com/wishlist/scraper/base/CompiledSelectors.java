@@ -0,0 +1,43 @@
+package com.wishlist.scraper.base;
+
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Lista ordenada de seletores CSS já convertidos em Evaluators do jsoup.
+ *
+ * doc.select(String) reparseia o seletor a cada chamada; guardando os Evaluators
+ * em constantes, cada scraper monta seu plano de extração uma única vez e o
+ * reaproveita entre chamadas e threads (os Evaluators não guardam estado).
+ */
+public final class CompiledSelectors implements Iterable<Evaluator> {
+
+    private final List<String> queries;
+    private final List<Evaluator> evaluators;
+
+    private CompiledSelectors(List<String> queries) {
+        this.queries = List.copyOf(queries);
+        this.evaluators = this.queries.stream().map(QueryParser::parse).toList();
+    }
+
+    public static CompiledSelectors of(String... queries) {
+        return new CompiledSelectors(List.of(queries));
+    }
+
+    public static Evaluator compile(String query) {
+        return QueryParser.parse(query);
+    }
+
+    @Override
+    public Iterator<Evaluator> iterator() {
+        return evaluators.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return queries.toString();
+    }
+}
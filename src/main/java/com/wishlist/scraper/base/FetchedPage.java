@@ -0,0 +1,44 @@
+package com.wishlist.scraper.base;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Resultado de um download, com o corpo já descomprimido. Se a página não mudou
+ * desde a última coleta bem-sucedida, notModified é true e não há corpo. truncada
+ * indica que a leitura parou no plano parcial antes do fim da página.
+ */
+@Getter
+@AllArgsConstructor
+public class FetchedPage {
+
+    private final boolean notModified;
+    private final String url;
+    private final byte[] body;
+    private final String charset;
+    private final String etag;
+    private final String lastModified;
+    private final long contentHash;
+    private final boolean truncada;
+
+    static FetchedPage notModified(String url) {
+        return new FetchedPage(true, url, null, null, null, null, 0, false);
+    }
+
+    /**
+     * Parseia o corpo baixado. Com charset nulo, o jsoup detecta pelo meta da página.
+     */
+    public Document parse() {
+        try {
+            return Jsoup.parse(new ByteArrayInputStream(body), charset, url);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler página: " + url, e);
+        }
+    }
+}
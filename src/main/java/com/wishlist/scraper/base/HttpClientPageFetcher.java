@@ -0,0 +1,324 @@
+package com.wishlist.scraper.base;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.brotli.dec.BrotliInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * PageFetcher sobre um único java.net.http.HttpClient compartilhado.
+ *
+ * O cliente reaproveita conexões (keep-alive no HTTP/1.1, multiplexação no HTTP/2),
+ * então o custo de conexão e handshake TLS é pago uma vez por host e não a cada
+ * produto. Cada host tem um teto de requisições simultâneas, e as respostas
+ * comprimidas (gzip, deflate, br) são descomprimidas enquanto são lidas. Com um
+ * {@link PartialPagePlan}, a leitura para assim que os trechos necessários chegam;
+ * sem ele, para no {@link #TAMANHO_MAXIMO_PAGINA}.
+ *
+ * O timeout da requisição só cobre a chegada dos cabeçalhos. O corpo tem um prazo
+ * total próprio: se o servidor parar no meio, o stream é fechado no prazo, o que
+ * destrava a thread de leitura e devolve a permissão do host.
+ *
+ * Os validadores da última coleta ficam num cache limitado por quantidade de links;
+ * um link que sai do cache (ou se perde num restart) volta a ser baixado por inteiro
+ * uma vez e tem os validadores registrados de novo.
+ */
+@Component
+public class HttpClientPageFetcher implements PageFetcher {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64)";
+    private static final String ACCEPT_ENCODING = "gzip, deflate, br";
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final long prazoLeituraMs;
+    private final int conexoesPorHost;
+
+    private final ExecutorService leituraExecutor;
+
+    private final Map<String, AsyncSemaphore> permissoesPorHost = new ConcurrentHashMap<>();
+    private final Cache<String, Validadores> validadoresPorLink;
+
+    public HttpClientPageFetcher(
+            @Value("${wishlist.scraper.http.timeout-ms:10000}") long timeoutMs,
+            @Value("${wishlist.scraper.http.prazo-leitura-ms:20000}") long prazoLeituraMs,
+            @Value("${wishlist.scraper.http.conexoes-por-host:6}") int conexoesPorHost,
+            @Value("${wishlist.scraper.http.validadores-maximo:50000}") long validadoresMaximo
+    ) {
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.prazoLeituraMs = prazoLeituraMs;
+        this.conexoesPorHost = conexoesPorHost;
+        this.validadoresPorLink = Caffeine.newBuilder()
+                .maximumSize(validadoresMaximo)
+                .build();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(timeout)
+                .build();
+
+        // O corpo é lido como stream para permitir parar no meio; cada leitura ocupa
+        // uma thread só enquanto os bytes chegam, limitada pelas permissões por host
+        AtomicInteger contador = new AtomicInteger();
+        this.leituraExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "leitura-pagina-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        leituraExecutor.shutdownNow();
+    }
+
+    @Override
+    public CompletableFuture<FetchedPage> fetchAsync(String url, PartialPagePlan plano) {
+        return baixar(url, null, plano);
+    }
+
+    @Override
+    public CompletableFuture<FetchedPage> fetchIfModifiedAsync(String url, PartialPagePlan plano) {
+        return baixar(url, validadoresPorLink.getIfPresent(url), plano);
+    }
+
+    @Override
+    public void registrarValidadores(String url, FetchedPage pagina) {
+        if (!pagina.isNotModified()) {
+            validadoresPorLink.put(url, new Validadores(
+                    pagina.getEtag(), pagina.getLastModified(), pagina.getContentHash()
+            ));
+        }
+    }
+
+    @Override
+    public void esquecerValidadores(String url) {
+        validadoresPorLink.invalidate(url);
+    }
+
+    private CompletableFuture<FetchedPage> baixar(
+            String url,
+            Validadores anteriores,
+            PartialPagePlan plano
+    ) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(
+                    new RuntimeException("Erro ao acessar página: " + url, e)
+            );
+        }
+
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .GET();
+
+        if (anteriores != null) {
+            if (anteriores.etag() != null) {
+                requisicao.header("If-None-Match", anteriores.etag());
+            }
+            if (anteriores.lastModified() != null) {
+                requisicao.header("If-Modified-Since", anteriores.lastModified());
+            }
+        }
+
+        AsyncSemaphore permissoes = permissoesPorHost.computeIfAbsent(
+                String.valueOf(uri.getHost()), host -> new AsyncSemaphore(conexoesPorHost)
+        );
+
+        return permissoes
+                .comPermissao(() -> httpClient
+                        .sendAsync(requisicao.build(), HttpResponse.BodyHandlers.ofInputStream())
+                        .thenCompose(resposta -> lerComPrazo(url, resposta, anteriores, plano)))
+                .handle((pagina, erro) -> {
+                    if (erro == null) {
+                        return pagina;
+                    }
+                    Throwable causa = erro instanceof CompletionException && erro.getCause() != null
+                            ? erro.getCause()
+                            : erro;
+                    if (causa instanceof RuntimeException runtime) {
+                        throw runtime;
+                    }
+                    if (causa instanceof TimeoutException) {
+                        throw new PageFetchException("Tempo esgotado lendo página: " + url, causa);
+                    }
+                    throw new PageFetchException("Erro ao acessar página: " + url, causa);
+                });
+    }
+
+    private CompletableFuture<FetchedPage> lerComPrazo(
+            String url,
+            HttpResponse<InputStream> resposta,
+            Validadores anteriores,
+            PartialPagePlan plano
+    ) {
+        return CompletableFuture
+                .supplyAsync(() -> paraPagina(url, resposta, anteriores, plano), leituraExecutor)
+                .orTimeout(prazoLeituraMs, TimeUnit.MILLISECONDS)
+                .whenComplete((pagina, erro) -> {
+                    if (erro instanceof TimeoutException) {
+                        // Fechar o stream faz o read bloqueado falhar e cancela o download
+                        try {
+                            resposta.body().close();
+                        } catch (IOException e) {
+                            // A leitura já vai terminar com erro de qualquer forma
+                        }
+                    }
+                });
+    }
+
+    private FetchedPage paraPagina(
+            String url,
+            HttpResponse<InputStream> resposta,
+            Validadores anteriores,
+            PartialPagePlan plano
+    ) {
+        HttpHeaders headers = resposta.headers();
+
+        try (InputStream corpoBruto = resposta.body()) {
+            if (resposta.statusCode() == 304 && anteriores != null) {
+                return FetchedPage.notModified(url);
+            }
+            if (resposta.statusCode() >= 400) {
+                throw new PageFetchException(
+                        "Erro ao acessar página: " + url + " (HTTP " + resposta.statusCode() + ")",
+                        resposta.statusCode()
+                );
+            }
+
+            Leitura leitura;
+            try (InputStream entrada = descomprimir(
+                    corpoBruto, headers.firstValue("Content-Encoding").orElse("")
+            )) {
+                leitura = plano == null
+                        ? new Leitura(entrada.readNBytes(TAMANHO_MAXIMO_PAGINA), false)
+                        : lerParcial(entrada, plano);
+            }
+
+            return paraPagina(url, headers, leitura, anteriores);
+        } catch (IOException e) {
+            throw new PageFetchException("Erro ao ler página: " + url, e);
+        }
+    }
+
+    /**
+     * Lê só até o plano estar satisfeito. Fechar o stream antes do fim cancela o resto do download.
+     */
+    private static Leitura lerParcial(InputStream entrada, PartialPagePlan plano) throws IOException {
+        PartialPagePlan.Progresso progresso = plano.iniciar();
+        byte[] dados = new byte[64 * 1024];
+        int tamanho = 0;
+
+        while (tamanho < plano.getMaxBytes()) {
+            if (tamanho == dados.length) {
+                dados = Arrays.copyOf(dados, Math.min(dados.length * 2, plano.getMaxBytes()));
+            }
+
+            int lidos = entrada.read(dados, tamanho, dados.length - tamanho);
+            if (lidos < 0) {
+                break;
+            }
+            tamanho += lidos;
+
+            if (progresso.completo(dados, tamanho)) {
+                return new Leitura(Arrays.copyOf(dados, tamanho), true);
+            }
+        }
+
+        return new Leitura(Arrays.copyOf(dados, tamanho), false);
+    }
+
+    private FetchedPage paraPagina(String url, HttpHeaders headers, Leitura leitura, Validadores anteriores) {
+        byte[] corpo = leitura.corpo();
+        long hash = hash(corpo);
+
+        if (anteriores != null && anteriores.contentHash() == hash) {
+            return FetchedPage.notModified(url);
+        }
+
+        return new FetchedPage(
+                false,
+                url,
+                corpo,
+                charset(headers),
+                headers.firstValue("ETag").orElse(null),
+                headers.firstValue("Last-Modified").orElse(null),
+                hash,
+                leitura.truncada()
+        );
+    }
+
+    private static InputStream descomprimir(InputStream corpo, String encoding) throws IOException {
+        String tipo = encoding.trim().toLowerCase(Locale.ROOT);
+        return switch (tipo) {
+            case "", "identity" -> corpo;
+            case "gzip", "x-gzip" -> new GZIPInputStream(corpo);
+            case "deflate" -> new InflaterInputStream(corpo);
+            case "br" -> new BrotliInputStream(corpo);
+            default -> throw new IOException("Content-Encoding não suportado: " + encoding);
+        };
+    }
+
+    private static String charset(HttpHeaders headers) {
+        return headers.firstValue("Content-Type")
+                .map(tipo -> {
+                    int inicio = tipo.toLowerCase(Locale.ROOT).indexOf("charset=");
+                    if (inicio < 0) {
+                        return null;
+                    }
+                    String valor = tipo.substring(inicio + "charset=".length());
+                    int fim = valor.indexOf(';');
+                    return (fim >= 0 ? valor.substring(0, fim) : valor).replace("\"", "").trim();
+                })
+                .orElse(null);
+    }
+
+    private static long hash(byte[] corpo) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(corpo);
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Corpo lido e se a leitura parou no plano antes do fim da página.
+     */
+    private record Leitura(byte[] corpo, boolean truncada) {
+    }
+
+    private record Validadores(String etag, String lastModified, long contentHash) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.wishlist.scraper.base;
+
+/**
+ * Falha ao baixar uma página. Guarda o status HTTP (0 quando a falha foi de rede)
+ * para que quem chamou saiba se vale tentar de novo.
+ */
+public class PageFetchException extends RuntimeException {
+
+    private final int status;
+
+    public PageFetchException(String message, int status) {
+        super(message);
+        this.status = status;
+    }
+
+    public PageFetchException(String message, Throwable cause) {
+        super(message, cause);
+        this.status = 0;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Rede, timeout, 408, 429 e 5xx costumam passar sozinhos; os demais 4xx não.
+     */
+    public boolean isTransitoria() {
+        return status == 0 || status == 408 || status == 429 || status >= 500;
+    }
+}
@@ -0,0 +1,54 @@
+package com.wishlist.scraper.base;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Baixa as páginas das lojas. Implementações guardam, por link, os validadores
+ * da última coleta bem-sucedida para permitir downloads condicionais.
+ */
+public interface PageFetcher {
+
+    /**
+     * Teto do corpo descomprimido, o mesmo maxBodySize padrão do Jsoup usado antes:
+     * o que passar disso é descartado.
+     */
+    int TAMANHO_MAXIMO_PAGINA = 2 * 1024 * 1024;
+
+    /**
+     * Sempre baixa a página, ignorando os validadores guardados. Com um plano,
+     * a leitura para assim que os trechos necessários chegarem (a página volta truncada).
+     */
+    CompletableFuture<FetchedPage> fetchAsync(String url, PartialPagePlan plano);
+
+    /**
+     * Envia os validadores da última coleta e devolve notModified se nada mudou.
+     */
+    CompletableFuture<FetchedPage> fetchIfModifiedAsync(String url, PartialPagePlan plano);
+
+    default CompletableFuture<FetchedPage> fetchAsync(String url) {
+        return fetchAsync(url, null);
+    }
+
+    /**
+     * Guarda os validadores da página. Só deve ser chamado depois que o conteúdo
+     * foi extraído com sucesso, senão uma falha de extração seria pulada para sempre.
+     */
+    void registrarValidadores(String url, FetchedPage pagina);
+
+    /**
+     * Descarta os validadores do link, quando o produto dele é removido.
+     */
+    void esquecerValidadores(String url);
+
+    default FetchedPage fetch(String url) {
+        try {
+            return fetchAsync(url).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.wishlist.scraper.base;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Diz quais trechos do HTML um scraper precisa, para que o download possa parar
+ * assim que eles chegarem em vez de ler páginas de vários megabytes até o fim.
+ *
+ * Cada bloco é um marcador de início e um de fim (ex.: "window.runParams" até
+ * "</script>"). A leitura termina quando todos os blocos obrigatórios e pelo menos
+ * um dos alternativos estiverem completos, ou ao atingir maxBytes.
+ */
+public class PartialPagePlan {
+
+    private final List<Bloco> obrigatorios;
+    private final List<Bloco> alternativos;
+    private final int maxBytes;
+
+    public PartialPagePlan(List<Bloco> obrigatorios, List<Bloco> alternativos, int maxBytes) {
+        this.obrigatorios = List.copyOf(obrigatorios);
+        this.alternativos = List.copyOf(alternativos);
+        this.maxBytes = maxBytes;
+    }
+
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    Progresso iniciar() {
+        return new Progresso();
+    }
+
+    public record Bloco(String inicio, String fim) {
+
+        byte[] inicioBytes() {
+            return inicio.getBytes(StandardCharsets.US_ASCII);
+        }
+
+        byte[] fimBytes() {
+            return fim.getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Estado de uma leitura. Cada bloco retoma a busca de onde parou,
+     * então cada byte recebido é examinado poucas vezes.
+     */
+    class Progresso {
+
+        private final Busca[] obrigatorias;
+        private final Busca[] alternativas;
+
+        private Progresso() {
+            obrigatorias = obrigatorios.stream().map(Busca::new).toArray(Busca[]::new);
+            alternativas = alternativos.stream().map(Busca::new).toArray(Busca[]::new);
+        }
+
+        boolean completo(byte[] dados, int tamanho) {
+            boolean todos = true;
+            for (Busca busca : obrigatorias) {
+                todos &= busca.avancar(dados, tamanho);
+            }
+
+            boolean algum = alternativas.length == 0;
+            for (Busca busca : alternativas) {
+                algum |= busca.avancar(dados, tamanho);
+            }
+
+            return todos && algum;
+        }
+    }
+
+    private static class Busca {
+
+        private final byte[] inicio;
+        private final byte[] fim;
+        private int posicao;
+        private boolean achouInicio;
+        private boolean completa;
+
+        Busca(Bloco bloco) {
+            this.inicio = bloco.inicioBytes();
+            this.fim = bloco.fimBytes();
+        }
+
+        boolean avancar(byte[] dados, int tamanho) {
+            if (completa) {
+                return true;
+            }
+
+            if (!achouInicio) {
+                int achado = indexOf(dados, tamanho, inicio, posicao);
+                if (achado < 0) {
+                    posicao = Math.max(posicao, tamanho - inicio.length + 1);
+                    return false;
+                }
+                achouInicio = true;
+                posicao = achado + inicio.length;
+            }
+
+            int achado = indexOf(dados, tamanho, fim, posicao);
+            if (achado < 0) {
+                posicao = Math.max(posicao, tamanho - fim.length + 1);
+                return false;
+            }
+
+            completa = true;
+            return true;
+        }
+
+        private static int indexOf(byte[] dados, int tamanho, byte[] alvo, int de) {
+            int limite = tamanho - alvo.length;
+            for (int i = Math.max(de, 0); i <= limite; i++) {
+                if (dados[i] != alvo[0]) {
+                    continue;
+                }
+                int j = 1;
+                while (j < alvo.length && dados[i + j] == alvo[j]) {
+                    j++;
+                }
+                if (j == alvo.length) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
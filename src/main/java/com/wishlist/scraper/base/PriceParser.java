@@ -0,0 +1,145 @@
+package com.wishlist.scraper.base;
+
+import java.math.BigDecimal;
+
+/**
+ * Converte o texto de preço das páginas em BigDecimal numa única passada.
+ *
+ * Os dígitos vão direto para um long (valor sem escala) e a escala sai da
+ * posição do separador decimal, então nenhuma String intermediária é criada.
+ * Prefixos de moeda ("R$", "US$", "BRL", NBSP...) são ignorados. Sinais não são
+ * aceitos: preço negativo não é preço.
+ */
+public final class PriceParser {
+
+    // 18 dígitos sempre cabem num long
+    private static final int MAX_DIGITOS = 18;
+
+    private PriceParser() {
+    }
+
+    /**
+     * Formato brasileiro: vírgula é o decimal e pontos são milhar ("R$ 1.299,90").
+     * Depois do número só pode haver espaço, então "12x de R$ 50,00" é inválido.
+     *
+     * @throws NumberFormatException se o texto não tiver um preço válido
+     */
+    public static BigDecimal parseBrl(CharSequence raw) {
+        BigDecimal price = parse(raw, true);
+        if (price == null) {
+            throw new NumberFormatException("Preço inválido: " + raw);
+        }
+        return price;
+    }
+
+    /**
+     * Aceita o formato brasileiro ("1.234,56") e o americano ("1,234.56"),
+     * decidindo pelo último separador. Texto depois do número é ignorado (em faixas
+     * como "R$ 10,00 - R$ 20,00", vale o primeiro valor). Devolve null se o texto
+     * não for um preço.
+     */
+    public static BigDecimal parse(CharSequence raw) {
+        return parse(raw, false);
+    }
+
+    private static BigDecimal parse(CharSequence raw, boolean brl) {
+        if (raw == null) {
+            return null;
+        }
+
+        int length = raw.length();
+        int i = 0;
+        while (i < length && !isDigit(raw.charAt(i))) {
+            // No formato estrito nenhum sinal passa; no flexível, só um colado ao número
+            if (isSinal(raw.charAt(i)) && (brl || i + 1 < length && isDigit(raw.charAt(i + 1)))) {
+                return null;
+            }
+            i++;
+        }
+
+        long unscaled = 0;
+        int digitos = 0;
+        // dígitos depois do último separador visto
+        int digitosAposSeparador = 0;
+        char ultimoSeparador = 0;
+        int pontos = 0;
+        int virgulas = 0;
+
+        for (; i < length; i++) {
+            char c = raw.charAt(i);
+
+            if (isDigit(c)) {
+                if (++digitos > MAX_DIGITOS) {
+                    return null;
+                }
+                unscaled = unscaled * 10 + (c - '0');
+                digitosAposSeparador++;
+            } else if (c == '.' || c == ',') {
+                if (i + 1 >= length || !isDigit(raw.charAt(i + 1))) {
+                    break;
+                }
+                ultimoSeparador = c;
+                digitosAposSeparador = 0;
+                if (c == '.') {
+                    pontos++;
+                } else {
+                    virgulas++;
+                }
+            } else if (isEspaco(c) && i + 1 < length && isDigit(raw.charAt(i + 1))) {
+                // "1 299,90": espaço entre dígitos é separador de milhar
+                continue;
+            } else {
+                break;
+            }
+        }
+
+        if (digitos == 0) {
+            return null;
+        }
+
+        if (brl) {
+            for (; i < length; i++) {
+                char c = raw.charAt(i);
+                if (!isEspaco(c) && !Character.isWhitespace(c)) {
+                    return null;
+                }
+            }
+        }
+
+        int scale;
+        if (brl) {
+            if (virgulas > 1 || (virgulas == 1 && ultimoSeparador != ',')) {
+                return null;
+            }
+            scale = virgulas == 1 ? digitosAposSeparador : 0;
+        } else if (ultimoSeparador == 0) {
+            scale = 0;
+        } else if (digitosAposSeparador <= 2
+                || (ultimoSeparador == '.' && pontos == 1 && virgulas == 0)) {
+            // "1.234,56", "1,234.56" e "12.5": o último separador é o decimal
+            if ((ultimoSeparador == '.' ? pontos : virgulas) > 1) {
+                return null;
+            }
+            scale = digitosAposSeparador;
+        } else if (pontos == 0 || virgulas == 0) {
+            // "1,234" e "1.234.567": só separadores de milhar
+            scale = 0;
+        } else {
+            return null;
+        }
+
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSinal(char c) {
+        return c == '-' || c == '+';
+    }
+
+    private static boolean isEspaco(char c) {
+        return c == ' ' || c == '\u00A0' || c == '\u202F';
+    }
+}
@@ -0,0 +1,315 @@
+package com.wishlist.scraper.base;
+
+import com.wishlist.model.enums.Loja;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Circuit breaker e orçamento de retentativas por loja.
+ *
+ * Fechado: as chamadas passam e o resultado das últimas {@code janela} entra na conta;
+ * com pelo menos {@code minimo-chamadas} e taxa de falha acima do limite, o circuito abre.
+ * Aberto: tudo falha na hora, sem rede, até a espera vencer. A espera dobra a cada
+ * reabertura seguida, até o máximo.
+ * Meia-abertura: deixa passar {@code sondas} chamadas; se todas derem certo o circuito
+ * fecha, se uma falhar ele reabre.
+ *
+ * Cada admissão é marcada com a fase do circuito em que aconteceu (e se é sonda), e só
+ * conta o resultado de chamadas admitidas na fase atual: uma chamada admitida antes de o
+ * circuito abrir não vira resultado de sonda. A admissão deve ser pedida logo antes da
+ * requisição, depois do rate limiter e do limite por loja, para que chamadas na fila não
+ * cheguem à loja com o circuito aberto.
+ *
+ * Página sem preço não é falha da loja (costuma ser layout alterado) e fica numa
+ * contagem à parte, de páginas seguidas sem preço.
+ *
+ * O orçamento de retentativas ganha uma fração de crédito a cada chamada admitida e cada
+ * retentativa gasta um crédito inteiro, então uma loja instável não multiplica a própria carga.
+ */
+@Component
+public class StoreCircuitBreaker {
+
+    private static final String PREFIXO = "wishlist.scraper.circuit-breaker.";
+
+    public enum Estado {
+        FECHADO,
+        ABERTO,
+        MEIO_ABERTO
+    }
+
+    /**
+     * Fotografia do circuito de uma loja, para consulta.
+     */
+    public record Situacao(
+            Loja loja,
+            Estado estado,
+            int chamadasNaJanela,
+            int falhasNaJanela,
+            int aberturasSeguidas,
+            long reaberturaEmMs,
+            double creditosRetentativa,
+            int paginasSemPrecoSeguidas
+    ) {
+    }
+
+    /**
+     * Chamada admitida: a fase do circuito em que entrou e se é uma sonda da meia-abertura.
+     */
+    public record Admissao(Loja loja, long fase, boolean sonda) {
+    }
+
+    private final Map<Loja, Circuito> circuitos = new EnumMap<>(Loja.class);
+
+    public StoreCircuitBreaker(Environment env) {
+        int janela = env.getProperty(PREFIXO + "janela", Integer.class, 20);
+        int minimoChamadas = env.getProperty(PREFIXO + "minimo-chamadas", Integer.class, 10);
+        double taxaFalha = env.getProperty(PREFIXO + "taxa-falha", Double.class, 0.5);
+        long esperaInicialMs = env.getProperty(PREFIXO + "espera-inicial-ms", Long.class, 30_000L);
+        long esperaMaximaMs = env.getProperty(PREFIXO + "espera-maxima-ms", Long.class, 1_800_000L);
+        int sondas = env.getProperty(PREFIXO + "sondas", Integer.class, 3);
+        double proporcaoRetentativas = env.getProperty(PREFIXO + "orcamento-retentativas.proporcao", Double.class, 0.2);
+        double creditosMaximos = env.getProperty(PREFIXO + "orcamento-retentativas.maximo", Double.class, 10.0);
+
+        for (Loja loja : Loja.values()) {
+            String chave = PREFIXO + loja.name().toLowerCase(Locale.ROOT).replace('_', '-');
+            circuitos.put(loja, new Circuito(
+                    loja,
+                    env.getProperty(chave + ".janela", Integer.class, janela),
+                    env.getProperty(chave + ".minimo-chamadas", Integer.class, minimoChamadas),
+                    env.getProperty(chave + ".taxa-falha", Double.class, taxaFalha),
+                    esperaInicialMs,
+                    esperaMaximaMs,
+                    sondas,
+                    proporcaoRetentativas,
+                    creditosMaximos
+            ));
+        }
+    }
+
+    /**
+     * Falha na hora se o circuito está aberto, sem reservar nada. Serve para não pôr na
+     * fila do rate limiter chamadas que seriam recusadas.
+     */
+    public void verificar(Loja loja) {
+        circuitos.get(loja).verificar(System.currentTimeMillis());
+    }
+
+    /**
+     * Admite uma requisição para a loja ou lança {@link CircuitoAbertoException}.
+     * Toda admissão deve terminar em {@link #registrar}.
+     */
+    public Admissao admitir(Loja loja) {
+        return circuitos.get(loja).admitir(System.currentTimeMillis());
+    }
+
+    /**
+     * Resultado do download admitido: sucesso se a loja respondeu com a página.
+     */
+    public void registrar(Admissao admissao, boolean sucesso) {
+        circuitos.get(admissao.loja()).registrar(admissao, sucesso, System.currentTimeMillis());
+    }
+
+    /**
+     * Resultado da extração de uma página baixada, que não afeta o circuito.
+     */
+    public void registrarExtracao(Loja loja, boolean comPreco) {
+        circuitos.get(loja).registrarExtracao(comPreco);
+    }
+
+    /**
+     * Gasta um crédito do orçamento de retentativas da loja, se houver.
+     */
+    public boolean gastarRetentativa(Loja loja) {
+        return circuitos.get(loja).gastarRetentativa();
+    }
+
+    public List<Situacao> situacao() {
+        long agora = System.currentTimeMillis();
+        List<Situacao> situacoes = new ArrayList<>();
+        for (Circuito circuito : circuitos.values()) {
+            situacoes.add(circuito.situacao(agora));
+        }
+        return situacoes;
+    }
+
+    private static final class Circuito {
+
+        private final Loja loja;
+        private final boolean[] janela;
+        private final int minimoChamadas;
+        private final double taxaFalha;
+        private final long esperaInicialMs;
+        private final long esperaMaximaMs;
+        private final int sondas;
+        private final double proporcaoRetentativas;
+        private final double creditosMaximos;
+
+        // Janela circular com os últimos resultados (true = falha)
+        private int posicao;
+        private int chamadas;
+        private int falhas;
+
+        private Estado estado = Estado.FECHADO;
+        private int aberturasSeguidas;
+        private long reabreEm;
+        private int sondasEmAndamento;
+        private int sondasComSucesso;
+        private double creditosRetentativa;
+        // Muda a cada transição de estado; admissões de fases anteriores não contam
+        private long fase;
+        private int semPrecoSeguidas;
+
+        Circuito(
+                Loja loja,
+                int tamanhoJanela,
+                int minimoChamadas,
+                double taxaFalha,
+                long esperaInicialMs,
+                long esperaMaximaMs,
+                int sondas,
+                double proporcaoRetentativas,
+                double creditosMaximos
+        ) {
+            this.loja = loja;
+            this.janela = new boolean[tamanhoJanela];
+            this.minimoChamadas = minimoChamadas;
+            this.taxaFalha = taxaFalha;
+            this.esperaInicialMs = esperaInicialMs;
+            this.esperaMaximaMs = esperaMaximaMs;
+            this.sondas = sondas;
+            this.proporcaoRetentativas = proporcaoRetentativas;
+            this.creditosMaximos = creditosMaximos;
+            this.creditosRetentativa = creditosMaximos;
+        }
+
+        synchronized void verificar(long agora) {
+            if (estado == Estado.ABERTO && agora < reabreEm) {
+                throw new CircuitoAbertoException(loja, reabreEm - agora);
+            }
+        }
+
+        synchronized Admissao admitir(long agora) {
+            if (estado == Estado.ABERTO) {
+                if (agora < reabreEm) {
+                    throw new CircuitoAbertoException(loja, reabreEm - agora);
+                }
+                estado = Estado.MEIO_ABERTO;
+                fase++;
+                sondasEmAndamento = 0;
+                sondasComSucesso = 0;
+            }
+
+            boolean sonda = false;
+            if (estado == Estado.MEIO_ABERTO) {
+                if (sondasEmAndamento >= sondas) {
+                    throw new CircuitoAbertoException(loja, 0);
+                }
+                sondasEmAndamento++;
+                sonda = true;
+            }
+
+            creditosRetentativa = Math.min(creditosMaximos, creditosRetentativa + proporcaoRetentativas);
+            return new Admissao(loja, fase, sonda);
+        }
+
+        synchronized void registrar(Admissao admissao, boolean sucesso, long agora) {
+            // Admitida em outra fase (antes de abrir, fechar ou reabrir): não diz nada sobre a atual
+            if (admissao.fase() != fase) {
+                return;
+            }
+
+            if (estado == Estado.MEIO_ABERTO) {
+                if (!admissao.sonda()) {
+                    return;
+                }
+                if (!sucesso) {
+                    abrir(agora);
+                } else if (++sondasComSucesso >= sondas) {
+                    fechar();
+                }
+                return;
+            }
+
+            if (estado == Estado.ABERTO) {
+                return;
+            }
+
+            if (chamadas == janela.length) {
+                if (janela[posicao]) {
+                    falhas--;
+                }
+            } else {
+                chamadas++;
+            }
+            janela[posicao] = !sucesso;
+            if (!sucesso) {
+                falhas++;
+            }
+            posicao = (posicao + 1) % janela.length;
+
+            if (sucesso) {
+                aberturasSeguidas = 0;
+            } else if (chamadas >= minimoChamadas && falhas >= taxaFalha * chamadas) {
+                abrir(agora);
+            }
+        }
+
+        synchronized void registrarExtracao(boolean comPreco) {
+            if (comPreco) {
+                semPrecoSeguidas = 0;
+            } else if (++semPrecoSeguidas == minimoChamadas) {
+                System.err.println(
+                        "[CIRCUITO] " + loja + ": " + semPrecoSeguidas
+                                + " páginas seguidas sem preço (layout alterado ou bloqueio?)"
+                );
+            }
+        }
+
+        synchronized boolean gastarRetentativa() {
+            if (estado != Estado.FECHADO || creditosRetentativa < 1) {
+                return false;
+            }
+            creditosRetentativa--;
+            return true;
+        }
+
+        synchronized Situacao situacao(long agora) {
+            return new Situacao(
+                    loja,
+                    estado,
+                    chamadas,
+                    falhas,
+                    aberturasSeguidas,
+                    estado == Estado.ABERTO ? Math.max(0, reabreEm - agora) : 0,
+                    creditosRetentativa,
+                    semPrecoSeguidas
+            );
+        }
+
+        private void abrir(long agora) {
+            long espera = esperaInicialMs << Math.min(aberturasSeguidas, 20);
+            aberturasSeguidas++;
+            estado = Estado.ABERTO;
+            fase++;
+            reabreEm = agora + Math.min(espera, esperaMaximaMs);
+
+            System.err.println("[CIRCUITO] " + loja + " aberto por " + (reabreEm - agora) / 1000 + "s");
+        }
+
+        private void fechar() {
+            estado = Estado.FECHADO;
+            fase++;
+            posicao = 0;
+            chamadas = 0;
+            falhas = 0;
+
+            System.out.println("[CIRCUITO] " + loja + " fechado");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.wishlist.scraper.base;
+
+import com.wishlist.model.enums.Loja;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket por loja para espaçar as requisições às lojas.
+ *
+ * Quem chama recebe um CompletableFuture que é completado quando a vez chega,
+ * sem segurar uma thread enquanto espera. Esperas recebem um jitter aleatório
+ * para que requisições enfileiradas não disparem todas no mesmo instante.
+ */
+@Component
+public class StoreRateLimiter {
+
+    private static final String PREFIXO = "wishlist.scraper.rate-limit.";
+
+    private final Map<Loja, TokenBucket> buckets = new EnumMap<>(Loja.class);
+    private final long jitterMaxNanos;
+    private final ScheduledExecutorService agendador;
+
+    public StoreRateLimiter(Environment env) {
+        double porSegundoPadrao = env.getProperty(PREFIXO + "padrao.por-segundo", Double.class, 2.0);
+        int burstPadrao = env.getProperty(PREFIXO + "padrao.burst", Integer.class, 5);
+
+        for (Loja loja : Loja.values()) {
+            String chave = PREFIXO + loja.name().toLowerCase(Locale.ROOT).replace('_', '-');
+            buckets.put(loja, new TokenBucket(
+                    env.getProperty(chave + ".por-segundo", Double.class, porSegundoPadrao),
+                    env.getProperty(chave + ".burst", Integer.class, burstPadrao)
+            ));
+        }
+
+        this.jitterMaxNanos = TimeUnit.MILLISECONDS.toNanos(
+                env.getProperty(PREFIXO + "jitter-ms", Long.class, 250L)
+        );
+
+        this.agendador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reserva uma requisição para a loja. O future completa quando ela pode ser feita.
+     */
+    public CompletableFuture<Void> acquire(Loja loja) {
+        long esperaNanos = buckets.get(loja).reservar(System.nanoTime());
+
+        if (esperaNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (jitterMaxNanos > 0) {
+            esperaNanos += ThreadLocalRandom.current().nextLong(jitterMaxNanos);
+        }
+
+        CompletableFuture<Void> vez = new CompletableFuture<>();
+        agendador.schedule(() -> vez.complete(null), esperaNanos, TimeUnit.NANOSECONDS);
+        return vez;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdownNow();
+    }
+
+    /**
+     * Bucket que acumula até "burst" fichas e repõe uma a cada intervalo.
+     * Pedidos sem ficha disponível reservam o próximo horário livre.
+     */
+    static class TokenBucket {
+
+        private final long intervaloNanos;
+        private final double burst;
+
+        private double fichas;
+        private long proximoLivreNanos;
+
+        TokenBucket(double porSegundo, int burst) {
+            this.intervaloNanos = (long) (TimeUnit.SECONDS.toNanos(1) / porSegundo);
+            this.burst = Math.max(burst, 1);
+            this.fichas = this.burst;
+            this.proximoLivreNanos = System.nanoTime();
+        }
+
+        synchronized long reservar(long agora) {
+            if (agora > proximoLivreNanos) {
+                fichas = Math.min(burst, fichas + (double) (agora - proximoLivreNanos) / intervaloNanos);
+                proximoLivreNanos = agora;
+            }
+
+            long espera = proximoLivreNanos - agora;
+
+            if (fichas >= 1) {
+                fichas -= 1;
+            } else {
+                proximoLivreNanos += (long) ((1 - fichas) * intervaloNanos);
+                fichas = 0;
+            }
+
+            return espera;
+        }
+    }
+}
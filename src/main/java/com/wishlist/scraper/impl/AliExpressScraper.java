@@ -3,11 +3,21 @@ package com.wishlist.scraper.impl;
 import com.wishlist.model.enums.Loja;
 import com.wishlist.scraper.PriceScraper;
 import com.wishlist.scraper.base.BaseScraper;
+import com.wishlist.scraper.base.CompiledSelectors;
+import com.wishlist.scraper.base.PageFetcher;
+import com.wishlist.scraper.base.PartialPagePlan;
+import com.wishlist.scraper.base.PartialPagePlan.Bloco;
+import com.wishlist.scraper.base.PriceParser;
+import org.jsoup.nodes.DataNode;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeTraversor;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -15,12 +25,17 @@ import java.util.regex.Pattern;
 @Component
 public class AliExpressScraper extends BaseScraper implements PriceScraper {
 
+    private static final List<String> DOMINIOS = List.of(
+            "aliexpress.com",
+            "aliexpress.us"
+    );
+
     @Override
     public Loja getLoja() {
         return Loja.ALIEXPRESS;
     }
 
-    private static final List<String> PRICE_SELECTORS = List.of(
+    private static final CompiledSelectors PRICE_SELECTORS = CompiledSelectors.of(
             "div.product-price-value",
             "span.product-price-value",
             "div.product-price-current",
@@ -30,7 +45,7 @@ public class AliExpressScraper extends BaseScraper implements PriceScraper {
             "meta[name=twitter:data1]"
     );
 
-    private static final List<String> NAME_SELECTORS = List.of(
+    private static final CompiledSelectors NAME_SELECTORS = CompiledSelectors.of(
             "h1[data-pl=product-title]",
             "h1.product-title-text",
             "meta[property=og:title]",
@@ -38,7 +53,7 @@ public class AliExpressScraper extends BaseScraper implements PriceScraper {
             "title"
     );
 
-    private static final List<String> IMAGE_SELECTORS = List.of(
+    private static final CompiledSelectors IMAGE_SELECTORS = CompiledSelectors.of(
             "meta[property=og:image]",
             "meta[name=twitter:image]",
             "img.magnifier-image",
@@ -46,17 +61,65 @@ public class AliExpressScraper extends BaseScraper implements PriceScraper {
             "div.image-view-magnifier-wrap img"
     );
 
+    private static final Evaluator PRODUCT_TITLE = CompiledSelectors.compile("h1[data-pl=product-title]");
+    private static final Evaluator OG_TITLE = CompiledSelectors.compile("meta[property=og:title]");
+    private static final Evaluator TWITTER_TITLE = CompiledSelectors.compile("meta[name=twitter:title]");
+    private static final Evaluator TITLE = CompiledSelectors.compile("title");
+    private static final Evaluator OG_IMAGE = CompiledSelectors.compile("meta[property=og:image]");
+    private static final Evaluator TWITTER_IMAGE = CompiledSelectors.compile("meta[name=twitter:image]");
+    private static final Evaluator META_PRICE = CompiledSelectors.compile("meta[property=product:price:amount]");
+    private static final Evaluator TWITTER_DATA = CompiledSelectors.compile("meta[name=twitter:data1]");
+    private static final Evaluator JSON_LD = CompiledSelectors.compile("script[type=application/ld+json]");
+    private static final Evaluator INLINE_SCRIPTS = CompiledSelectors.compile("script:not([src])");
+
+    private static final Pattern TITLE_SUFFIX = Pattern.compile("\\s*-\\s*AliExpress.*$");
+    private static final Pattern URL_PRICE = Pattern.compile("BRL%20([0-9]+\\.?[0-9]*)");
+    private static final Pattern HAS_DECIMAL = Pattern.compile(".*\\d+[.,]\\d+.*");
+    private static final Pattern JSON_PRICE = Pattern.compile("\"price\"\\s*:\\s*\"?([0-9.]+)\"?");
+    private static final Pattern JSON_OFFER_PRICE =
+            Pattern.compile("\"(?:low|high)Price\"\\s*:\\s*\"?([0-9.]+)\"?");
+
+    private static final Pattern[] SCRIPT_PRICE_PATTERNS = {
+            JSON_PRICE,
+            Pattern.compile("\"minPrice\"\\s*:\\s*\"?([0-9.]+)\"?"),
+            Pattern.compile("\"maxPrice\"\\s*:\\s*\"?([0-9.]+)\"?"),
+            Pattern.compile("\"actMinPrice\"\\s*:\\s*\"?([0-9.]+)\"?"),
+            Pattern.compile("price[\"']?\\s*:\\s*[\"']?([0-9.]+)[\"']?")
+    };
+
+    private static final Pattern[] HTML_PRICE_PATTERNS = {
+            Pattern.compile("R\\$\\s*([0-9]{2,}[.,][0-9]{2})"),
+            Pattern.compile("US\\$\\s*([0-9]{2,}[.,][0-9]{2})"),
+            Pattern.compile("BRL\\s*([0-9]{2,}[.,][0-9]{2})"),
+            Pattern.compile("\\$\\s*([0-9]{2,}[.,][0-9]{2})")
+    };
+
+    private static final BigDecimal MIN_VALID_PRICE = new BigDecimal("1.00");
+
+    // Meta tags ficam no <head>; o preço vem do JSON-LD do produto ou do window.runParams.
+    // A página completa passa de alguns megabytes, e o resto dela não é usado. Outros
+    // blocos JSON-LD do <head> (site, breadcrumbs) não contam: só o do tipo Product.
+    private static final PartialPagePlan PARTIAL_PAGE_PLAN = new PartialPagePlan(
+            List.of(new Bloco("<head", "</head>")),
+            List.of(
+                    new Bloco("window.runParams", "</script>"),
+                    new Bloco("\"@type\":\"Product\"", "</script>")
+            ),
+            PageFetcher.TAMANHO_MAXIMO_PAGINA
+    );
+
     @Override
-    public boolean supports(String url) {
-        return url.contains("aliexpress.com")
-                || url.contains("aliexpress.us")
-                || url.contains("pt.aliexpress.com");
+    public PartialPagePlan partialPagePlan() {
+        return PARTIAL_PAGE_PLAN;
     }
 
     @Override
-    public BigDecimal extractPrice(String url) {
-        Document doc = getDocument(url);
+    public List<String> getDominios() {
+        return DOMINIOS;
+    }
 
+    @Override
+    protected BigDecimal extractPrice(Document doc, String url) {
         // 1. Tenta extrair dos parâmetros da URL
         BigDecimal urlPrice = extractPriceFromUrl(url);
         if (urlPrice != null && isValidPrice(urlPrice)) {
@@ -84,7 +147,7 @@ public class AliExpressScraper extends BaseScraper implements PriceScraper {
         // 5. Tenta pelos seletores CSS
         String rawPrice = findFirstText(doc, PRICE_SELECTORS);
         if (rawPrice != null && !rawPrice.isBlank()) {
-            BigDecimal cssPrice = parsePriceAliExpress(rawPrice);
+            BigDecimal cssPrice = PriceParser.parse(rawPrice);
             if (cssPrice != null && isValidPrice(cssPrice)) {
                 return cssPrice;
             }
@@ -100,43 +163,39 @@ public class AliExpressScraper extends BaseScraper implements PriceScraper {
     }
 
     @Override
-    public String extractName(String url) {
-        Document doc = getDocument(url);
-
-        Element titleElement = doc.selectFirst("h1[data-pl=product-title]");
+    protected String extractName(Document doc) {
+        Element titleElement = doc.selectFirst(PRODUCT_TITLE);
         if (titleElement != null && !titleElement.text().isBlank()) {
             return titleElement.text().trim();
         }
 
-        Element ogTitle = doc.selectFirst("meta[property=og:title]");
+        Element ogTitle = doc.selectFirst(OG_TITLE);
         if (ogTitle != null) {
             String content = ogTitle.attr("content");
             if (content != null && !content.isBlank()) {
-                return content.replaceAll("\\s*-\\s*AliExpress.*$", "").trim();
+                return TITLE_SUFFIX.matcher(content).replaceAll("").trim();
             }
         }
 
-        Element twitterTitle = doc.selectFirst("meta[name=twitter:title]");
+        Element twitterTitle = doc.selectFirst(TWITTER_TITLE);
         if (twitterTitle != null) {
             String content = twitterTitle.attr("content");
             if (content != null && !content.isBlank()) {
-                return content.replaceAll("\\s*-\\s*AliExpress.*$", "").trim();
+                return TITLE_SUFFIX.matcher(content).replaceAll("").trim();
             }
         }
 
-        Element title = doc.selectFirst("title");
+        Element title = doc.selectFirst(TITLE);
         if (title != null && !title.text().isBlank()) {
-            return title.text().replaceAll("\\s*-\\s*AliExpress.*$", "").trim();
+            return TITLE_SUFFIX.matcher(title.text()).replaceAll("").trim();
         }
 
         throw new RuntimeException("Nome do produto não encontrado no AliExpress");
     }
 
     @Override
-    public String extractImage(String url) {
-        Document doc = getDocument(url);
-
-        Element ogImage = doc.selectFirst("meta[property=og:image]");
+    protected String extractImage(Document doc) {
+        Element ogImage = doc.selectFirst(OG_IMAGE);
         if (ogImage != null) {
             String content = ogImage.attr("content");
             if (content != null && !content.isBlank() && content.startsWith("http")) {
@@ -144,7 +203,7 @@ public class AliExpressScraper extends BaseScraper implements PriceScraper {
             }
         }
 
-        Element twitterImage = doc.selectFirst("meta[name=twitter:image]");
+        Element twitterImage = doc.selectFirst(TWITTER_IMAGE);
         if (twitterImage != null) {
             String content = twitterImage.attr("content");
             if (content != null && !content.isBlank() && content.startsWith("http")) {
@@ -160,8 +219,7 @@ public class AliExpressScraper extends BaseScraper implements PriceScraper {
         try {
             // AliExpress coloca preços nos parâmetros da URL
             // Exemplo: pdp_npi=5%40dis%21BRL%21BRL%20170.49%21BRL%20153.49
-            Pattern pattern = Pattern.compile("BRL%20([0-9]+\\.?[0-9]*)");
-            Matcher matcher = pattern.matcher(url);
+            Matcher matcher = URL_PRICE.matcher(url);
 
             BigDecimal lastPrice = null;
             while (matcher.find()) {
@@ -177,13 +235,13 @@ public class AliExpressScraper extends BaseScraper implements PriceScraper {
     }
 
     private boolean isValidPrice(BigDecimal price) {
-        return price != null && price.compareTo(new BigDecimal("1.00")) > 0;
+        return price != null && price.compareTo(MIN_VALID_PRICE) > 0;
     }
 
     private BigDecimal extractPriceFromMetaTags(Document doc) {
         try {
             // Tenta product:price:amount
-            Element priceMeta = doc.selectFirst("meta[property=product:price:amount]");
+            Element priceMeta = doc.selectFirst(META_PRICE);
             if (priceMeta != null) {
                 String content = priceMeta.attr("content");
                 if (content != null && !content.isBlank()) {
@@ -192,11 +250,11 @@ public class AliExpressScraper extends BaseScraper implements PriceScraper {
             }
 
             // Tenta twitter:data1
-            Element twitterData = doc.selectFirst("meta[name=twitter:data1]");
+            Element twitterData = doc.selectFirst(TWITTER_DATA);
             if (twitterData != null) {
                 String content = twitterData.attr("content");
-                if (content != null && content.matches(".*\\d+[.,]\\d+.*")) {
-                    return parsePriceAliExpress(content);
+                if (content != null && HAS_DECIMAL.matcher(content).matches()) {
+                    return PriceParser.parse(content);
                 }
             }
         } catch (Exception e) {
@@ -206,21 +264,19 @@ public class AliExpressScraper extends BaseScraper implements PriceScraper {
 
     private BigDecimal extractPriceFromJsonLd(Document doc) {
         try {
-            Element jsonLd = doc.selectFirst("script[type=application/ld+json]");
+            Element jsonLd = doc.selectFirst(JSON_LD);
             if (jsonLd != null) {
-                String json = jsonLd.html();
+                String json = jsonLd.data();
 
                 // Procura por padrões de preço no JSON
-                Pattern pattern = Pattern.compile("\"price\"\\s*:\\s*\"?([0-9.]+)\"?");
-                Matcher matcher = pattern.matcher(json);
+                Matcher matcher = JSON_PRICE.matcher(json);
 
                 if (matcher.find()) {
                     return new BigDecimal(matcher.group(1));
                 }
 
                 // Tenta lowPrice ou highPrice
-                Pattern offerPattern = Pattern.compile("\"(?:low|high)Price\"\\s*:\\s*\"?([0-9.]+)\"?");
-                Matcher offerMatcher = offerPattern.matcher(json);
+                Matcher offerMatcher = JSON_OFFER_PRICE.matcher(json);
 
                 if (offerMatcher.find()) {
                     return new BigDecimal(offerMatcher.group(1));
@@ -233,19 +289,11 @@ public class AliExpressScraper extends BaseScraper implements PriceScraper {
 
     private BigDecimal extractPriceFromScripts(Document doc) {
         try {
-            for (Element script : doc.select("script:not([src])")) {
-                String scriptContent = script.html();
+            for (Element script : doc.select(INLINE_SCRIPTS)) {
+                String scriptContent = script.data();
 
                 // Procura por padrões comuns de preço em scripts
-                Pattern patterns[] = {
-                        Pattern.compile("\"price\"\\s*:\\s*\"?([0-9.]+)\"?"),
-                        Pattern.compile("\"minPrice\"\\s*:\\s*\"?([0-9.]+)\"?"),
-                        Pattern.compile("\"maxPrice\"\\s*:\\s*\"?([0-9.]+)\"?"),
-                        Pattern.compile("\"actMinPrice\"\\s*:\\s*\"?([0-9.]+)\"?"),
-                        Pattern.compile("price[\"']?\\s*:\\s*[\"']?([0-9.]+)[\"']?")
-                };
-
-                for (Pattern pattern : patterns) {
+                for (Pattern pattern : SCRIPT_PRICE_PATTERNS) {
                     Matcher matcher = pattern.matcher(scriptContent);
                     if (matcher.find()) {
                         String priceStr = matcher.group(1);
@@ -262,23 +310,27 @@ public class AliExpressScraper extends BaseScraper implements PriceScraper {
 
     private BigDecimal extractPriceFromHtml(Document doc) {
         try {
-            String html = doc.html();
+            // Textos e scripts da página, sem reserializar o DOM inteiro numa única String
+            List<String> trechos = new ArrayList<>();
+            NodeTraversor.traverse((node, depth) -> {
+                if (node instanceof TextNode texto) {
+                    trechos.add(texto.getWholeText());
+                } else if (node instanceof DataNode dados) {
+                    trechos.add(dados.getWholeData());
+                }
+            }, doc);
 
             // Procura por padrões de preço em todo HTML
-            Pattern[] patterns = {
-                    Pattern.compile("R\\$\\s*([0-9]{2,}[.,][0-9]{2})"),
-                    Pattern.compile("US\\$\\s*([0-9]{2,}[.,][0-9]{2})"),
-                    Pattern.compile("BRL\\s*([0-9]{2,}[.,][0-9]{2})"),
-                    Pattern.compile("\\$\\s*([0-9]{2,}[.,][0-9]{2})")
-            };
-
-            for (Pattern pattern : patterns) {
-                Matcher matcher = pattern.matcher(html);
-                if (matcher.find()) {
-                    String priceStr = matcher.group(1);
-                    BigDecimal price = parsePriceAliExpress(priceStr);
-                    if (price != null && isValidPrice(price)) {
-                        return price;
+            for (Pattern pattern : HTML_PRICE_PATTERNS) {
+                for (String trecho : trechos) {
+                    Matcher matcher = pattern.matcher(trecho);
+                    if (matcher.find()) {
+                        String priceStr = matcher.group(1);
+                        BigDecimal price = PriceParser.parse(priceStr);
+                        if (price != null && isValidPrice(price)) {
+                            return price;
+                        }
+                        break;
                     }
                 }
             }
@@ -286,33 +338,4 @@ public class AliExpressScraper extends BaseScraper implements PriceScraper {
         }
         return null;
     }
-
-    private BigDecimal parsePriceAliExpress(String raw) {
-        if (raw == null || raw.isBlank()) {
-            return null;
-        }
-
-        String cleaned = raw
-                .replace("R$", "")
-                .replace("US$", "")
-                .replace("BRL", "")
-                .replace("$", "")
-                .replace("\u00A0", "")
-                .replace(" ", "")
-                .trim();
-
-        if (cleaned.matches(".*\\d+,\\d{2}$")) {
-            // Formato brasileiro: 1.234,56
-            cleaned = cleaned.replace(".", "").replace(",", ".");
-        } else if (cleaned.matches(".*\\d+\\.\\d{2}$")) {
-            // Formato americano: 1,234.56
-            cleaned = cleaned.replace(",", "");
-        }
-
-        try {
-            return new BigDecimal(cleaned);
-        } catch (NumberFormatException e) {
-            return null;
-        }
-    }
 }
\ No newline at end of file
@@ -3,8 +3,13 @@ package com.wishlist.scraper.impl;
 import com.wishlist.model.enums.Loja;
 import com.wishlist.scraper.PriceScraper;
 import com.wishlist.scraper.base.BaseScraper;
+import com.wishlist.scraper.base.CompiledSelectors;
+import com.wishlist.scraper.base.PageFetcher;
+import com.wishlist.scraper.base.PartialPagePlan;
+import com.wishlist.scraper.base.PartialPagePlan.Bloco;
 import org.jsoup.nodes.Document;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -13,47 +18,77 @@ import java.util.List;
 @Component
 public class AmazonScraper extends BaseScraper implements PriceScraper {
 
+    private static final List<String> DOMINIOS = List.of(
+            "amazon.com.br",
+            "amazon.com"
+    );
+
     @Override
     public Loja getLoja() {
         return Loja.AMAZON;
     }
 
-    private static final List<String> PRICE_SELECTORS = List.of(
+    private static final CompiledSelectors OFFSCREEN_PRICE = CompiledSelectors.of(
+            "span.a-price span.a-offscreen"
+    );
+
+    private static final Evaluator PRICE_WHOLE = CompiledSelectors.compile("span.a-price-whole");
+    private static final Evaluator PRICE_FRACTION = CompiledSelectors.compile("span.a-price-fraction");
+
+    private static final CompiledSelectors PRICE_SELECTORS = CompiledSelectors.of(
             "span.a-price span.a-offscreen",
             "span.a-price-whole",
             "span:matches(R\\$)"
     );
 
-    private static final List<String> IMAGE_SELECTORS = List.of(
+    private static final CompiledSelectors IMAGE_SELECTORS = CompiledSelectors.of(
             "meta[property=og:image]",
             "#imgTagWrapperId img",
             "img[data-old-hires]",
             "img"
     );
 
-    private static final List<String> NAME_SELECTORS = List.of(
+    private static final CompiledSelectors NAME_SELECTORS = CompiledSelectors.of(
             "#productTitle",
             "h1#title span",
             "h1 span",
             "h1"
     );
 
+    // Título, preço e imagem principal ficam no topo do produto; avaliações,
+    // recomendações e scripts do resto da página não são usados. O preço só conta
+    // como atributo de classe: "a-offscreen" sozinho também aparece em CSS e scripts.
+    private static final PartialPagePlan PARTIAL_PAGE_PLAN = new PartialPagePlan(
+            List.of(
+                    new Bloco("id=\"productTitle\"", "</span>"),
+                    new Bloco("class=\"a-offscreen\"", "</span>")
+            ),
+            List.of(
+                    new Bloco("id=\"imgTagWrapperId\"", "</div>"),
+                    new Bloco("data-old-hires", ">")
+            ),
+            PageFetcher.TAMANHO_MAXIMO_PAGINA
+    );
+
     @Override
-    public boolean supports(String url) {
-        return url.matches(".*amazon\\..*");
+    public PartialPagePlan partialPagePlan() {
+        return PARTIAL_PAGE_PLAN;
     }
 
     @Override
-    public BigDecimal extractPrice(String url) {
-        Document doc = getDocument(url);
+    public List<String> getDominios() {
+        return DOMINIOS;
+    }
 
-        String rawPrice = findFirstText(doc, List.of("span.a-price span.a-offscreen"));
+    @Override
+    protected BigDecimal extractPrice(Document doc, String url) {
+        String rawPrice = findFirstText(doc, OFFSCREEN_PRICE);
         if (rawPrice != null) {
             return parsePrice(rawPrice);
         }
 
-        Elements whole = doc.select("span.a-price-whole");
-        Elements fraction = doc.select("span.a-price-fraction");
+        Elements whole = doc.select(PRICE_WHOLE);
+        Elements fraction = doc.select(PRICE_FRACTION);
 
         if (!whole.isEmpty() && !fraction.isEmpty()) {
             String raw = "R$" +
@@ -72,14 +107,12 @@ public class AmazonScraper extends BaseScraper implements PriceScraper {
     }
 
     @Override
-    public String extractImage(String url) {
-        Document doc = getDocument(url);
+    protected String extractImage(Document doc) {
         return extractImageWithFallback(doc, IMAGE_SELECTORS);
     }
 
     @Override
-    public String extractName(String url) {
-        Document doc = getDocument(url);
+    protected String extractName(Document doc) {
         return extractNameWithFallback(
                 doc,
                 NAME_SELECTORS,
@@ -3,6 +3,7 @@ package com.wishlist.scraper.impl;
 import com.wishlist.model.enums.Loja;
 import com.wishlist.scraper.PriceScraper;
 import com.wishlist.scraper.base.BaseScraper;
+import com.wishlist.scraper.base.CompiledSelectors;
 import org.jsoup.nodes.Document;
 import org.springframework.stereotype.Component;
 
@@ -12,39 +13,42 @@ import java.util.List;
 @Component
 public class KabumScraper extends BaseScraper implements PriceScraper {
 
+    private static final List<String> DOMINIOS = List.of(
+            "kabum.com.br"
+    );
+
     @Override
     public Loja getLoja() {
         return Loja.KABUM;
     }
 
-    private static final List<String> PRICE_SELECTORS = List.of(
+    private static final CompiledSelectors PRICE_SELECTORS = CompiledSelectors.of(
             "h4.text-4xl.text-secondary-500.font-bold",
             "h4.text-secondary-500",
             "[class*='text-secondary'][class*='font-bold']",
             "h4:matches(R\\$)"
     );
 
-    private static final List<String> IMAGE_SELECTORS = List.of(
+    private static final CompiledSelectors IMAGE_SELECTORS = CompiledSelectors.of(
             "meta[property=og:image]",
             "img[src*='kabum']",
             "img[data-src*='kabum']",
             "img"
     );
 
-    private static final List<String> NAME_SELECTORS = List.of(
+    private static final CompiledSelectors NAME_SELECTORS = CompiledSelectors.of(
             "h1.text-sm.desktop\\:text-xl.text-black-800.font-bold",
             "h1[class*='font-bold']",
             "h1"
     );
 
     @Override
-    public boolean supports(String url) {
-        return url.matches(".*kabum\\..*");
+    public List<String> getDominios() {
+        return DOMINIOS;
     }
 
     @Override
-    public BigDecimal extractPrice(String url) {
-        Document doc = getDocument(url);
+    protected BigDecimal extractPrice(Document doc, String url) {
         return extractPriceWithFallback(
                 doc,
                 PRICE_SELECTORS,
@@ -53,14 +57,12 @@ public class KabumScraper extends BaseScraper implements PriceScraper {
     }
 
     @Override
-    public String extractImage(String url) {
-        Document doc = getDocument(url);
+    protected String extractImage(Document doc) {
         return extractImageWithFallback(doc, IMAGE_SELECTORS);
     }
 
     @Override
-    public String extractName(String url) {
-        Document doc = getDocument(url);
+    protected String extractName(Document doc) {
         return extractNameWithFallback(
                 doc,
                 NAME_SELECTORS,
@@ -3,8 +3,10 @@ package com.wishlist.scraper.impl;
 import com.wishlist.model.enums.Loja;
 import com.wishlist.scraper.PriceScraper;
 import com.wishlist.scraper.base.BaseScraper;
+import com.wishlist.scraper.base.CompiledSelectors;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -13,41 +15,46 @@ import java.util.List;
 @Component
 public class MercadoLivreScraper extends BaseScraper implements PriceScraper {
 
+    private static final List<String> DOMINIOS = List.of(
+            "mercadolivre.com.br",
+            "mercadolivre.com"
+    );
+
     @Override
     public Loja getLoja() {
         return Loja.MERCADO_LIVRE;
     }
 
-    private static final List<String> PRICE_SELECTORS = List.of(
+    private static final Evaluator META_PRICE = CompiledSelectors.compile("meta[itemprop=price]");
+    private static final Evaluator PDP_TITLE = CompiledSelectors.compile("h1.ui-pdp-title");
+    private static final Evaluator ZOOM_IMAGE = CompiledSelectors.compile("img[data-zoom]");
+
+    private static final CompiledSelectors PRICE_SELECTORS = CompiledSelectors.of(
             "meta[itemprop=price]",
             "span.andes-money-amount__fraction",
             "span:matches(R\\$)"
     );
 
-    private static final List<String> NAME_SELECTORS = List.of(
+    private static final CompiledSelectors NAME_SELECTORS = CompiledSelectors.of(
             "h1.ui-pdp-title",
             "meta[property=og:title]",
             "h1"
     );
 
-    private static final List<String> IMAGE_SELECTORS = List.of(
+    private static final CompiledSelectors IMAGE_SELECTORS = CompiledSelectors.of(
             "img[data-zoom]",
             "meta[property=og:image]",
             "img"
     );
 
     @Override
-    public boolean supports(String url) {
-        return url.contains("mercadolivre.com")
-                || url.contains("mercadolivre.com.br")
-                || url.contains("ml.com");
+    public List<String> getDominios() {
+        return DOMINIOS;
     }
 
     @Override
-    public BigDecimal extractPrice(String url) {
-        Document doc = getDocument(url);
-
-        Element metaPrice = doc.selectFirst("meta[itemprop=price]");
+    protected BigDecimal extractPrice(Document doc, String url) {
+        Element metaPrice = doc.selectFirst(META_PRICE);
         if (metaPrice != null) {
             String content = metaPrice.attr("content");
             if (content != null && !content.isBlank()) {
@@ -63,10 +70,8 @@ public class MercadoLivreScraper extends BaseScraper implements PriceScraper {
     }
 
     @Override
-    public String extractName(String url) {
-        Document doc = getDocument(url);
-
-        Element title = doc.selectFirst("h1.ui-pdp-title");
+    protected String extractName(Document doc) {
+        Element title = doc.selectFirst(PDP_TITLE);
         if (title != null && !title.text().isBlank()) {
             return title.text().trim();
         }
@@ -79,10 +84,8 @@ public class MercadoLivreScraper extends BaseScraper implements PriceScraper {
     }
 
     @Override
-    public String extractImage(String url) {
-        Document doc = getDocument(url);
-
-        Element zoomImg = doc.selectFirst("img[data-zoom]");
+    protected String extractImage(Document doc) {
+        Element zoomImg = doc.selectFirst(ZOOM_IMAGE);
         if (zoomImg != null) {
             String zoom = zoomImg.attr("data-zoom");
             if (zoom != null && !zoom.isBlank()) {
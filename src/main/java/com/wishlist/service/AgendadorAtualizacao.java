@@ -0,0 +1,335 @@
+package com.wishlist.service;
+
+import com.wishlist.model.entity.Produto;
+import com.wishlist.model.enums.Loja;
+import com.wishlist.repository.ProdutoPrecoHistoricoRepository;
+import com.wishlist.repository.ProdutoRepository;
+import com.wishlist.service.MotorAtualizacaoPrecos.Desfecho;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decide quais produtos atualizar a cada rodada, em vez de atualizar todos de tempos em tempos.
+ *
+ * Cada produto tem uma taxa estimada de mudanças de preço por dia, começando pelo
+ * número de históricos gravados na janela configurada e atualizada a cada coleta
+ * com decaimento exponencial. O intervalo até a próxima coleta é metade do tempo
+ * esperado entre mudanças, ajustado pelo fator da loja e limitado entre o mínimo
+ * e o máximo configurados; falhas seguidas adiam a próxima tentativa em progressão
+ * geométrica.
+ *
+ * As próximas coletas ficam numa fila de prioridade pelo horário previsto. A cada
+ * rodada saem da fila os produtos vencidos até o limite de créditos, que se
+ * acumulam na proporção do orçamento de requisições por hora.
+ */
+@Service
+public class AgendadorAtualizacao {
+
+    private static final String PREFIXO = "wishlist.agendamento.";
+    private static final double DIA_MS = TimeUnit.DAYS.toMillis(1);
+
+    private final ProdutoRepository produtoRepository;
+    private final ProdutoPrecoHistoricoRepository produtoPrecoHistoricoRepository;
+    private final MotorAtualizacaoPrecos motorAtualizacaoPrecos;
+
+    private final double orcamentoPorHora;
+    private final double creditosMaximos;
+    private final long intervaloMinimoMs;
+    private final long intervaloMaximoMs;
+    private final int janelaDias;
+    private final int tamanhoLote;
+    private final Map<Loja, Double> fatorPorLoja = new EnumMap<>(Loja.class);
+
+    private final PriorityQueue<Agendamento> fila =
+            new PriorityQueue<>(Comparator.comparingLong(a -> a.proxima));
+    private final Map<Long, Agendamento> porProduto = new HashMap<>();
+    private final Map<Long, Double> mudancasNaJanela = new HashMap<>();
+
+    private long maiorIdConhecido;
+    private double creditos;
+    private long ultimaRodada;
+    private volatile boolean aquecido;
+
+    public AgendadorAtualizacao(
+            ProdutoRepository produtoRepository,
+            ProdutoPrecoHistoricoRepository produtoPrecoHistoricoRepository,
+            MotorAtualizacaoPrecos motorAtualizacaoPrecos,
+            Environment env,
+            MeterRegistry meterRegistry,
+            @Value("${wishlist.atualizacao.tamanho-lote:200}") int tamanhoLote
+    ) {
+        this.produtoRepository = produtoRepository;
+        this.produtoPrecoHistoricoRepository = produtoPrecoHistoricoRepository;
+        this.motorAtualizacaoPrecos = motorAtualizacaoPrecos;
+        this.tamanhoLote = tamanhoLote;
+
+        this.orcamentoPorHora = env.getProperty(PREFIXO + "orcamento-por-hora", Double.class, 600.0);
+        this.intervaloMinimoMs = TimeUnit.MINUTES.toMillis(
+                env.getProperty(PREFIXO + "intervalo-minimo-min", Long.class, 60L)
+        );
+        this.intervaloMaximoMs = TimeUnit.MINUTES.toMillis(
+                env.getProperty(PREFIXO + "intervalo-maximo-min", Long.class, 4320L)
+        );
+        this.janelaDias = env.getProperty(PREFIXO + "janela-dias", Integer.class, 30);
+
+        // Nunca acumula mais que uma rodada de orçamento (ou uma requisição, se o orçamento for baixo)
+        long rodadaMs = env.getProperty(PREFIXO + "rodada-ms", Long.class, 60000L);
+        this.creditosMaximos = Math.max(1.0, orcamentoPorHora * rodadaMs / TimeUnit.HOURS.toMillis(1));
+
+        for (Loja loja : Loja.values()) {
+            String chave = PREFIXO + "fator." + loja.name().toLowerCase(Locale.ROOT).replace('_', '-');
+            fatorPorLoja.put(loja, env.getProperty(chave, Double.class, 1.0));
+        }
+
+        Gauge.builder("wishlist.agendamento.produtos", this, AgendadorAtualizacao::getAgendados)
+                .description("Produtos na agenda de atualização")
+                .register(meterRegistry);
+        Gauge.builder("wishlist.agendamento.atrasados", this, AgendadorAtualizacao::getAtrasados)
+                .description("Produtos cuja próxima coleta já venceu e aguardam orçamento")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        LocalDateTime desde = LocalDateTime.now().minusDays(janelaDias);
+
+        for (Object[] linha : produtoPrecoHistoricoRepository.contarMudancasDesde(desde)) {
+            mudancasNaJanela.put((Long) linha[0], ((Long) linha[1]).doubleValue());
+        }
+
+        int agendados = sincronizarNovos(System.currentTimeMillis());
+        mudancasNaJanela.clear();
+
+        synchronized (this) {
+            ultimaRodada = System.currentTimeMillis();
+            aquecido = true;
+        }
+
+        System.out.println("[AGENDA] " + agendados + " produtos agendados");
+    }
+
+    /**
+     * Atualiza os produtos vencidos que cabem no orçamento e bloqueia até terminarem.
+     * Devolve null se nada estava vencido.
+     */
+    public RelatorioAtualizacao executarPendentes() {
+        if (!aquecido) {
+            return null;
+        }
+
+        long agora = System.currentTimeMillis();
+        sincronizarNovos(agora);
+
+        List<Long> vencidos = retirarVencidos(agora);
+        if (vencidos.isEmpty()) {
+            return null;
+        }
+
+        try {
+            List<Produto> produtos = produtoRepository.findAllById(vencidos);
+
+            // Produtos removidos desde o agendamento simplesmente não voltam para a fila
+            if (produtos.size() < vencidos.size()) {
+                Set<Long> encontrados = new HashSet<>();
+                produtos.forEach(produto -> encontrados.add(produto.getId()));
+
+                synchronized (this) {
+                    for (Long id : vencidos) {
+                        if (!encontrados.contains(id)) {
+                            porProduto.remove(id);
+                        }
+                    }
+                }
+            }
+
+            return motorAtualizacaoPrecos.atualizar(produtos, true, this::registrarDesfecho);
+        } finally {
+            devolverSemDesfecho(vencidos);
+        }
+    }
+
+    /**
+     * Volta para a fila, como uma falha, quem saiu dela e não teve desfecho registrado
+     * (a consulta ou o motor lançaram exceção). Sem isso, o produto ficaria em
+     * porProduto fora da fila e nunca mais seria atualizado.
+     */
+    private synchronized void devolverSemDesfecho(List<Long> vencidos) {
+        int devolvidos = 0;
+        for (Long id : vencidos) {
+            Agendamento agendamento = porProduto.get(id);
+            if (agendamento != null && !agendamento.naFila) {
+                agendarFalha(agendamento, System.currentTimeMillis());
+                devolvidos++;
+            }
+        }
+
+        if (devolvidos > 0) {
+            System.err.println("[AGENDA] " + devolvidos + " produtos voltaram para a fila sem desfecho");
+        }
+    }
+
+    private synchronized List<Long> retirarVencidos(long agora) {
+        creditos = Math.min(
+                creditosMaximos,
+                creditos + orcamentoPorHora * (agora - ultimaRodada) / TimeUnit.HOURS.toMillis(1)
+        );
+        ultimaRodada = agora;
+
+        List<Long> vencidos = new ArrayList<>();
+        while (creditos >= 1 && !fila.isEmpty() && fila.peek().proxima <= agora) {
+            Agendamento agendamento = fila.poll();
+            agendamento.naFila = false;
+            vencidos.add(agendamento.produtoId);
+            creditos--;
+        }
+        return vencidos;
+    }
+
+    private synchronized void registrarDesfecho(Produto produto, Desfecho desfecho, String erro) {
+        Agendamento agendamento = porProduto.get(produto.getId());
+        if (agendamento == null || agendamento.naFila) {
+            return;
+        }
+
+        long agora = System.currentTimeMillis();
+
+        if (desfecho == Desfecho.FALHA) {
+            agendarFalha(agendamento, agora);
+            return;
+        }
+
+        double dias = (agora - agendamento.ultimaObservacao) / DIA_MS;
+        agendamento.mudancasPorDia = agendamento.mudancasPorDia * Math.exp(-dias / janelaDias)
+                + (desfecho == Desfecho.PRECO_ALTERADO ? 1.0 / janelaDias : 0.0);
+        agendamento.ultimaObservacao = agora;
+        agendamento.falhasSeguidas = 0;
+        agendamento.proxima = agora + intervalo(agendamento);
+        enfileirar(agendamento);
+    }
+
+    private void agendarFalha(Agendamento agendamento, long agora) {
+        agendamento.falhasSeguidas++;
+        long espera = intervaloMinimoMs << Math.min(agendamento.falhasSeguidas - 1, 20);
+        agendamento.proxima = agora + Math.min(espera, intervaloMaximoMs);
+        enfileirar(agendamento);
+    }
+
+    private void enfileirar(Agendamento agendamento) {
+        agendamento.naFila = true;
+        fila.add(agendamento);
+    }
+
+    /**
+     * Agenda os produtos cadastrados depois do último id conhecido.
+     */
+    private int sincronizarNovos(long agora) {
+        int agendados = 0;
+        List<Object[]> lote;
+
+        do {
+            long ultimoId;
+            synchronized (this) {
+                ultimoId = maiorIdConhecido;
+            }
+
+            lote = produtoRepository.buscarAgendaAposId(ultimoId, Limit.of(tamanhoLote));
+
+            synchronized (this) {
+                for (Object[] linha : lote) {
+                    Long id = (Long) linha[0];
+                    Loja loja = (Loja) linha[1];
+                    LocalDateTime ultimaAtualizacao = (LocalDateTime) linha[2];
+
+                    maiorIdConhecido = Math.max(maiorIdConhecido, id);
+
+                    // Produtos sem scraper não têm o que atualizar
+                    if (loja == Loja.DESCONHECIDA || porProduto.containsKey(id)) {
+                        continue;
+                    }
+
+                    Agendamento agendamento = new Agendamento(id, loja);
+                    agendamento.mudancasPorDia = mudancasNaJanela.getOrDefault(id, 0.0) / janelaDias;
+                    agendamento.ultimaObservacao = agora;
+                    agendamento.proxima = ultimaAtualizacao == null
+                            ? agora
+                            : paraMillis(ultimaAtualizacao) + intervalo(agendamento);
+
+                    porProduto.put(id, agendamento);
+                    enfileirar(agendamento);
+                    agendados++;
+                }
+            }
+
+        } while (lote.size() == tamanhoLote);
+
+        return agendados;
+    }
+
+    private long intervalo(Agendamento agendamento) {
+        double ms = agendamento.mudancasPorDia > 0
+                ? DIA_MS / agendamento.mudancasPorDia / 2
+                : intervaloMaximoMs;
+
+        if (agendamento.loja != null) {
+            ms *= fatorPorLoja.get(agendamento.loja);
+        }
+
+        return Math.max(intervaloMinimoMs, Math.min(intervaloMaximoMs, (long) ms));
+    }
+
+    private static long paraMillis(LocalDateTime dataHora) {
+        return dataHora.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public synchronized int getAgendados() {
+        return porProduto.size();
+    }
+
+    public synchronized int getAtrasados() {
+        long agora = System.currentTimeMillis();
+        int atrasados = 0;
+        for (Agendamento agendamento : fila) {
+            if (agendamento.proxima <= agora) {
+                atrasados++;
+            }
+        }
+        return atrasados;
+    }
+
+    private static final class Agendamento {
+
+        final Long produtoId;
+        final Loja loja;
+
+        double mudancasPorDia;
+        long ultimaObservacao;
+        long proxima;
+        int falhasSeguidas;
+        boolean naFila;
+
+        Agendamento(Long produtoId, Loja loja) {
+            this.produtoId = produtoId;
+            this.loja = loja;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.wishlist.service;
+
+import com.wishlist.model.dto.AlertaRequestDTO;
+import com.wishlist.model.dto.AlertaResponseDTO;
+import com.wishlist.model.entity.AlertaPreco;
+import com.wishlist.model.entity.Produto;
+import com.wishlist.model.enums.TipoAlerta;
+import com.wishlist.repository.AlertaPrecoRepository;
+import com.wishlist.repository.ProdutoPrecoHistoricoRepository;
+import com.wishlist.repository.ProdutoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Cadastro dos alertas de preço. Toda alteração gravada é repassada ao índice em
+ * memória do {@link AvaliadorAlertas}, que é quem avalia os preços novos.
+ */
+@Service
+public class AlertaService {
+
+    private static final BigDecimal CEM = BigDecimal.valueOf(100);
+
+    private final AlertaPrecoRepository alertaPrecoRepository;
+    private final ProdutoRepository produtoRepository;
+    private final ProdutoPrecoHistoricoRepository produtoPrecoHistoricoRepository;
+    private final AvaliadorAlertas avaliadorAlertas;
+
+    public AlertaService(
+            AlertaPrecoRepository alertaPrecoRepository,
+            ProdutoRepository produtoRepository,
+            ProdutoPrecoHistoricoRepository produtoPrecoHistoricoRepository,
+            AvaliadorAlertas avaliadorAlertas
+    ) {
+        this.alertaPrecoRepository = alertaPrecoRepository;
+        this.produtoRepository = produtoRepository;
+        this.produtoPrecoHistoricoRepository = produtoPrecoHistoricoRepository;
+        this.avaliadorAlertas = avaliadorAlertas;
+    }
+
+    public AlertaResponseDTO criar(AlertaRequestDTO dto) {
+        if (dto.getProdutoId() == null) {
+            throw new IllegalArgumentException("Produto do alerta é obrigatório");
+        }
+
+        Produto produto = produtoRepository.findById(dto.getProdutoId())
+                .orElseThrow(() -> new RuntimeException("Produto não encontrado"));
+
+        AlertaPreco alerta = new AlertaPreco();
+        alerta.setProdutoId(produto.getId());
+        alerta.setTipo(tipo(dto.getTipo()));
+        alerta.setValor(dto.getValor());
+        alerta.setAtivo(dto.getAtivo() == null || dto.getAtivo());
+        armar(alerta, produto);
+
+        AlertaPreco salvo = alertaPrecoRepository.save(alerta);
+        avaliadorAlertas.registrar(salvo);
+        return mapToResponseDTO(salvo);
+    }
+
+    /**
+     * Mudar o tipo ou o valor rearma o alerta a partir do preço atual; só ativar ou
+     * desativar mantém o estado. Na transação o alerta fica gerenciado, então sem
+     * rearmar o UPDATE leva só ativo e não desfaz o que o avaliador gravou enquanto isso.
+     */
+    @Transactional
+    public AlertaResponseDTO atualizar(Long id, AlertaRequestDTO dto) {
+        AlertaPreco alerta = buscarAlerta(id);
+
+        TipoAlerta tipo = dto.getTipo() != null ? tipo(dto.getTipo()) : alerta.getTipo();
+        BigDecimal valor = dto.getValor() != null ? dto.getValor() : alerta.getValor();
+
+        if (tipo != alerta.getTipo() || !Objects.equals(valor, alerta.getValor())) {
+            alerta.setTipo(tipo);
+            alerta.setValor(valor);
+            armar(alerta, produtoRepository.findById(alerta.getProdutoId())
+                    .orElseThrow(() -> new RuntimeException("Produto não encontrado")));
+        }
+        if (dto.getAtivo() != null) {
+            alerta.setAtivo(dto.getAtivo());
+        }
+
+        AlertaPreco salvo = alertaPrecoRepository.save(alerta);
+        avaliadorAlertas.registrar(salvo);
+        return mapToResponseDTO(salvo);
+    }
+
+    public AlertaResponseDTO buscarPorId(Long id) {
+        return mapToResponseDTO(buscarAlerta(id));
+    }
+
+    public List<AlertaResponseDTO> listar(Long produtoId) {
+        List<AlertaPreco> alertas = produtoId != null
+                ? alertaPrecoRepository.findByProdutoIdOrderById(produtoId)
+                : alertaPrecoRepository.findAll();
+
+        return alertas.stream().map(this::mapToResponseDTO).toList();
+    }
+
+    public void remover(Long id) {
+        AlertaPreco alerta = buscarAlerta(id);
+        alertaPrecoRepository.delete(alerta);
+        avaliadorAlertas.remover(alerta.getProdutoId(), id);
+    }
+
+    private AlertaPreco buscarAlerta(Long id) {
+        return alertaPrecoRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Alerta não encontrado"));
+    }
+
+    /**
+     * Valida o valor para o tipo e define a referência de onde o alerta parte:
+     * o preço atual na queda percentual e o menor preço do histórico no menor preço histórico.
+     */
+    private void armar(AlertaPreco alerta, Produto produto) {
+        BigDecimal valor = alerta.getValor();
+
+        switch (alerta.getTipo()) {
+            case PRECO_ALVO -> {
+                if (valor == null || valor.signum() <= 0) {
+                    throw new IllegalArgumentException("Preço alvo deve ser maior que zero");
+                }
+                alerta.setPrecoReferencia(null);
+            }
+            case QUEDA_PERCENTUAL -> {
+                if (valor == null || valor.signum() <= 0 || valor.compareTo(CEM) >= 0) {
+                    throw new IllegalArgumentException("Percentual de queda deve estar entre 0 e 100");
+                }
+                if (produto.getPrecoAtual() == null) {
+                    throw new IllegalArgumentException("Produto sem preço atual para medir a queda");
+                }
+                alerta.setPrecoReferencia(produto.getPrecoAtual());
+            }
+            case MENOR_PRECO_HISTORICO -> {
+                alerta.setValor(null);
+                alerta.setPrecoReferencia(produtoPrecoHistoricoRepository.buscarMenorPreco(produto.getId()));
+            }
+        }
+
+        alerta.setDisparado(false);
+        alerta.setUltimoDisparo(null);
+    }
+
+    private TipoAlerta tipo(String tipo) {
+        if (tipo == null || tipo.isBlank()) {
+            throw new IllegalArgumentException("Tipo do alerta é obrigatório");
+        }
+        try {
+            return TipoAlerta.valueOf(tipo.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Tipo de alerta inválido: " + tipo + " (use PRECO_ALVO, QUEDA_PERCENTUAL ou MENOR_PRECO_HISTORICO)"
+            );
+        }
+    }
+
+    /* AUX */
+    private AlertaResponseDTO mapToResponseDTO(AlertaPreco alerta) {
+        return AlertaResponseDTO.builder()
+                .id(alerta.getId())
+                .produtoId(alerta.getProdutoId())
+                .tipo(alerta.getTipo().name())
+                .valor(alerta.getValor())
+                .precoReferencia(alerta.getPrecoReferencia())
+                .ativo(alerta.isAtivo())
+                .disparado(alerta.isDisparado())
+                .ultimoDisparo(alerta.getUltimoDisparo())
+                .createdAt(alerta.getCreatedAt())
+                .build();
+    }
+}
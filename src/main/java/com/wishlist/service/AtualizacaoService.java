@@ -0,0 +1,512 @@
+package com.wishlist.service;
+
+import com.wishlist.model.dto.AtualizacaoResponseDTO;
+import com.wishlist.model.dto.ItemAtualizacaoResponseDTO;
+import com.wishlist.model.dto.ProdutoResponseDTO;
+import com.wishlist.model.entity.Produto;
+import com.wishlist.model.enums.EstadoAtualizacao;
+import com.wishlist.repository.ListaRepository;
+import com.wishlist.repository.ProdutoRepository;
+import com.wishlist.scraper.ScraperFactory;
+import com.wishlist.service.MotorAtualizacaoPrecos.Desfecho;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Atualizações de preço pedidas pela API, executadas fora da thread da requisição.
+ *
+ * Cada pedido vira uma atualização com id próprio que roda em segundo plano pelo
+ * MotorAtualizacaoPrecos; o cliente acompanha o progresso por produto consultando o id.
+ * Um pedido para um produto ou lista que já tem atualização pendente ou em andamento
+ * devolve a existente em vez de criar outra. As concluídas ficam disponíveis para
+ * consulta pelo tempo de retenção configurado. Como quem pede quer o preço de agora,
+ * as páginas são sempre baixadas, sem a coleta condicional do agendador.
+ *
+ * Qualquer atualização pode ser acompanhada por Server-Sent Events, que entregam cada
+ * produto assim que ele termina; acompanhar não dispara coleta. A variante em fluxo
+ * (POST) cria a atualização da lista e já devolve o fluxo dela; essas rodam num pool
+ * próprio, com teto de execuções simultâneas, para não esperarem mudas na fila das
+ * atualizações em segundo plano. O envio fica numa thread própria de cada cliente,
+ * alimentada por uma fila limitada (ver Assinatura), para um cliente lento não segurar
+ * as threads do motor.
+ */
+@Service
+public class AtualizacaoService {
+
+    private static final String PREFIXO = "wishlist.atualizacao.sob-demanda.";
+
+    /**
+     * Id do evento que encerra o fluxo. O EventSource reconecta sozinho quando a resposta
+     * termina e manda esse id em Last-Event-ID; o controller responde 204 para ele parar.
+     */
+    public static final String ID_ULTIMO_EVENTO = "fim";
+
+    private final ProdutoRepository produtoRepository;
+    private final ListaRepository listaRepository;
+    private final ScraperFactory scraperFactory;
+    private final MotorAtualizacaoPrecos motorAtualizacaoPrecos;
+    private final ProdutoService produtoService;
+
+    private final ExecutorService executor;
+    private final ExecutorService executorFluxo;
+    private final ExecutorService executorEnvio;
+    private final long retencaoMin;
+    private final long tempoLimiteFluxoMs;
+    private final int capacidadeFilaFluxo;
+
+    private final Map<String, Atualizacao> atualizacoes = new ConcurrentHashMap<>();
+    // Atualização pendente ou em andamento por alvo ("produto:7", "lista:3")
+    private final Map<String, Atualizacao> emAndamento = new ConcurrentHashMap<>();
+
+    public AtualizacaoService(
+            ProdutoRepository produtoRepository,
+            ListaRepository listaRepository,
+            ScraperFactory scraperFactory,
+            MotorAtualizacaoPrecos motorAtualizacaoPrecos,
+            ProdutoService produtoService,
+            Environment env
+    ) {
+        this.produtoRepository = produtoRepository;
+        this.listaRepository = listaRepository;
+        this.scraperFactory = scraperFactory;
+        this.motorAtualizacaoPrecos = motorAtualizacaoPrecos;
+        this.produtoService = produtoService;
+        this.retencaoMin = env.getProperty(PREFIXO + "retencao-min", Long.class, 30L);
+        this.tempoLimiteFluxoMs = env.getProperty(PREFIXO + "tempo-limite-fluxo-ms", Long.class, 600_000L);
+        this.capacidadeFilaFluxo = env.getProperty(PREFIXO + "fila-eventos-fluxo", Integer.class, 256);
+
+        // Cada execução só coordena e espera o motor; o paralelismo de scraping é do motor
+        this.executor = Executors.newFixedThreadPool(
+                env.getProperty(PREFIXO + "execucoes-simultaneas", Integer.class, 2),
+                threads("atualizacao-")
+        );
+        // Sem fila: com todos os fluxos ocupados, o próximo é recusado na hora em vez de esperar mudo
+        int fluxosSimultaneos = env.getProperty(PREFIXO + "fluxos-simultaneos", Integer.class, 4);
+        this.executorFluxo = new ThreadPoolExecutor(
+                fluxosSimultaneos, fluxosSimultaneos, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), threads("atualizacao-fluxo-")
+        );
+        // Uma thread por fluxo aberto, que só espera eventos e escreve na resposta
+        this.executorEnvio = Executors.newCachedThreadPool(threads("atualizacao-envio-"));
+    }
+
+    public AtualizacaoResponseDTO atualizarProduto(Long produtoId) {
+        Produto produto = produtoRepository.findById(produtoId)
+                .orElseThrow(() -> new RuntimeException("Produto não encontrado"));
+
+        // Sem scraper não há o que atualizar: recusa já na requisição
+        scraperFactory.getScraper(produto.getLink());
+
+        return submeter(
+                "produto:" + produtoId,
+                new Atualizacao(null, produtoId),
+                () -> produtoRepository.findById(produtoId).map(List::of).orElse(List.of()),
+                executor
+        ).paraDTO();
+    }
+
+    public AtualizacaoResponseDTO atualizarLista(Long listaId) {
+        if (!listaRepository.existsById(listaId)) {
+            throw new RuntimeException("Lista não encontrada");
+        }
+
+        return submeter(
+                "lista:" + listaId,
+                new Atualizacao(listaId, null),
+                () -> produtoRepository.findByListaId(listaId),
+                executor
+        ).paraDTO();
+    }
+
+    /**
+     * Atualiza a lista e devolve o fluxo da atualização (ver {@link #acompanhar}). Se a lista
+     * já tem uma atualização pendente ou em andamento, acompanha essa em vez de criar outra.
+     * Lança RejectedExecutionException se o teto de fluxos simultâneos já foi atingido.
+     */
+    public SseEmitter transmitirLista(Long listaId) {
+        if (!listaRepository.existsById(listaId)) {
+            throw new RuntimeException("Lista não encontrada");
+        }
+
+        Atualizacao atualizacao;
+        try {
+            atualizacao = submeter(
+                    "lista:" + listaId,
+                    new Atualizacao(listaId, null),
+                    () -> produtoRepository.findByListaId(listaId),
+                    executorFluxo
+            );
+        } catch (RejectedExecutionException e) {
+            throw new RejectedExecutionException("Limite de fluxos de atualização simultâneos atingido", e);
+        }
+        return assinar(atualizacao);
+    }
+
+    /**
+     * Acompanha por SSE uma atualização já criada, sem disparar coleta nenhuma: um evento
+     * "produto" com o ProdutoResponseDTO (ou "erro" com o motivo) por produto concluído,
+     * começando pelos que já terminaram, e por último "fim" com os totais (ou "erro" se a
+     * atualização falhou), ambos com id {@link #ID_ULTIMO_EVENTO}.
+     */
+    public SseEmitter acompanhar(String id) {
+        return assinar(buscarAtualizacao(id));
+    }
+
+    private SseEmitter assinar(Atualizacao atualizacao) {
+        SseEmitter emitter = new SseEmitter(tempoLimiteFluxoMs);
+        Assinatura assinatura = atualizacao.assinar(capacidadeFilaFluxo);
+
+        emitter.onTimeout(assinatura::cancelar);
+        emitter.onError(erro -> assinatura.cancelar());
+
+        executorEnvio.execute(() -> enviar(emitter, assinatura));
+
+        return emitter;
+    }
+
+    private EventoFluxo eventoProduto(Produto produto, Desfecho desfecho, String erro) {
+        if (desfecho == Desfecho.FALHA) {
+            return new EventoFluxo("erro", null, Map.of(
+                    "produtoId", produto.getId(),
+                    "error", motivo(erro)
+            ), false);
+        }
+        ProdutoResponseDTO dto = produtoService.mapToResponseDTO(produto);
+        return new EventoFluxo("produto", String.valueOf(produto.getId()), dto, false);
+    }
+
+    private void enviar(SseEmitter emitter, Assinatura assinatura) {
+        try {
+            while (true) {
+                EventoFluxo evento = assinatura.fila.take();
+                if (evento == Assinatura.CANCELADA) {
+                    return;
+                }
+                emitter.send(evento.paraSse());
+                if (evento.ultimo()) {
+                    break;
+                }
+            }
+
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectou: a atualização segue e grava normalmente, só para de enfileirar eventos
+            assinatura.cancelar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        }
+    }
+
+    public AtualizacaoResponseDTO buscar(String id) {
+        return buscarAtualizacao(id).paraDTO();
+    }
+
+    private Atualizacao buscarAtualizacao(String id) {
+        Atualizacao atualizacao = atualizacoes.get(id);
+        if (atualizacao == null) {
+            throw new RuntimeException("Atualização não encontrada");
+        }
+        return atualizacao;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+        executorFluxo.shutdownNow();
+        executorEnvio.shutdownNow();
+    }
+
+    private Atualizacao submeter(
+            String alvo,
+            Atualizacao nova,
+            Supplier<List<Produto>> produtos,
+            ExecutorService pool
+    ) {
+        descartarAntigas();
+
+        atualizacoes.put(nova.id, nova);
+        Atualizacao existente = emAndamento.putIfAbsent(alvo, nova);
+        if (existente != null) {
+            atualizacoes.remove(nova.id);
+            return existente;
+        }
+
+        try {
+            pool.execute(() -> executar(alvo, nova, produtos));
+        } catch (RejectedExecutionException e) {
+            emAndamento.remove(alvo, nova);
+            atualizacoes.remove(nova.id);
+            throw e;
+        }
+
+        return nova;
+    }
+
+    private void executar(String alvo, Atualizacao atualizacao, Supplier<List<Produto>> carregar) {
+        try {
+            List<Produto> produtos = carregar.get();
+            atualizacao.iniciar(produtos);
+
+            RelatorioAtualizacao relatorio = motorAtualizacaoPrecos.atualizar(
+                    produtos,
+                    false,
+                    (produto, desfecho, erro) -> {
+                        atualizacao.concluido(produto, desfecho);
+                        atualizacao.publicar(eventoProduto(produto, desfecho, erro));
+                    }
+            );
+
+            atualizacao.concluir(EstadoAtualizacao.CONCLUIDA, null);
+            atualizacao.publicar(new EventoFluxo("fim", ID_ULTIMO_EVENTO, Map.of(
+                    "total", produtos.size(),
+                    "sucessos", relatorio.getSucessos(),
+                    "inalterados", relatorio.getInalterados(),
+                    "falhas", relatorio.getFalhas()
+            ), true));
+            System.out.println("[ATUALIZAÇÃO] " + alvo + " finalizada: " + relatorio.resumo());
+
+        } catch (Exception e) {
+            atualizacao.concluir(EstadoAtualizacao.FALHOU, e.getMessage());
+            atualizacao.publicar(new EventoFluxo(
+                    "erro", ID_ULTIMO_EVENTO, Map.of("error", motivo(e.getMessage())), true
+            ));
+            System.err.println("[ATUALIZAÇÃO] Erro em " + alvo + ": " + e.getMessage());
+
+        } finally {
+            emAndamento.remove(alvo, atualizacao);
+        }
+    }
+
+    private void descartarAntigas() {
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(retencaoMin);
+        atualizacoes.values().removeIf(atualizacao -> {
+            LocalDateTime concluidaEm = atualizacao.concluidaEm;
+            return concluidaEm != null && concluidaEm.isBefore(limite);
+        });
+    }
+
+    private static String motivo(String erro) {
+        return erro != null && !erro.isBlank() ? erro : "Não foi possível atualizar o preço do produto";
+    }
+
+    /**
+     * Um evento SSE guardado como dados: o mesmo evento vai para cada assinatura e para
+     * quem assinar depois, e um SseEventBuilder só pode ser enviado uma vez.
+     */
+    private record EventoFluxo(String nome, String id, Object dados, boolean ultimo) {
+
+        SseEmitter.SseEventBuilder paraSse() {
+            SseEmitter.SseEventBuilder evento = SseEmitter.event().name(nome).data(dados);
+            return id != null ? evento.id(id) : evento;
+        }
+
+        /**
+         * O último evento leva quantos eventos de produto a assinatura perdeu.
+         */
+        EventoFluxo comDescartados(int descartados) {
+            Map<String, Object> comTotal = new LinkedHashMap<>();
+            if (dados instanceof Map<?, ?> mapa) {
+                mapa.forEach((chave, valor) -> comTotal.put(String.valueOf(chave), valor));
+            }
+            comTotal.put("eventosDescartados", descartados);
+            return new EventoFluxo(nome, id, comTotal, ultimo);
+        }
+    }
+
+    /**
+     * Fila de eventos de um cliente, esvaziada pela thread de envio dele. O limite é
+     * conferido à mão para o último evento sempre caber: é ele que encerra o envio.
+     * Um cliente lento que deixa a fila encher perde os eventos de produto seguintes,
+     * sem buracos no meio, e o último evento conta quantos.
+     */
+    private static final class Assinatura {
+
+        static final EventoFluxo CANCELADA = new EventoFluxo(null, null, null, true);
+
+        final BlockingQueue<EventoFluxo> fila = new LinkedBlockingQueue<>();
+        final int capacidade;
+        final AtomicBoolean ativa = new AtomicBoolean(true);
+        // Só mexido sob o lock da Atualizacao
+        int descartados;
+
+        Assinatura(int capacidade) {
+            this.capacidade = capacidade;
+        }
+
+        /**
+         * Nunca bloqueia: roda nas threads do motor. Devolve false se o cliente já saiu.
+         */
+        boolean oferecer(EventoFluxo evento) {
+            if (!ativa.get()) {
+                return false;
+            }
+            if (evento.ultimo()) {
+                fila.add(evento.comDescartados(descartados));
+            } else if (descartados > 0 || fila.size() >= capacidade) {
+                descartados++;
+            } else {
+                fila.add(evento);
+            }
+            return true;
+        }
+
+        void cancelar() {
+            if (ativa.compareAndSet(true, false)) {
+                fila.add(CANCELADA);
+            }
+        }
+    }
+
+    private static ThreadFactory threads(String prefixo) {
+        AtomicInteger contador = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefixo + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Atualizacao {
+
+        final String id = UUID.randomUUID().toString();
+        final Long listaId;
+        final Long produtoId;
+        final LocalDateTime criadaEm = LocalDateTime.now();
+        final AtomicInteger concluidos = new AtomicInteger();
+
+        // Tudo que já foi publicado, repassado a quem assinar depois; guardado pelo lock da atualização
+        private final List<EventoFluxo> eventos = new ArrayList<>();
+        private final List<Assinatura> assinaturas = new ArrayList<>();
+
+        volatile EstadoAtualizacao estado = EstadoAtualizacao.PENDENTE;
+        volatile LocalDateTime iniciadaEm;
+        volatile LocalDateTime concluidaEm;
+        volatile String erro;
+        // Montado uma vez em iniciar(); depois só os itens mudam
+        volatile Map<Long, Item> itens = Map.of();
+
+        Atualizacao(Long listaId, Long produtoId) {
+            this.listaId = listaId;
+            this.produtoId = produtoId;
+        }
+
+        void iniciar(List<Produto> produtos) {
+            Map<Long, Item> novos = new LinkedHashMap<>();
+            for (Produto produto : produtos) {
+                novos.put(produto.getId(), new Item(produto.getId(), produto.getNome(), produto.getPrecoAtual()));
+            }
+            itens = novos;
+            iniciadaEm = LocalDateTime.now();
+            estado = EstadoAtualizacao.EXECUTANDO;
+        }
+
+        void concluido(Produto produto, Desfecho desfecho) {
+            Item item = itens.get(produto.getId());
+            if (item != null) {
+                item.precoAtual = produto.getPrecoAtual();
+                item.estado = desfecho.name();
+                concluidos.incrementAndGet();
+            }
+        }
+
+        synchronized void publicar(EventoFluxo evento) {
+            eventos.add(evento);
+            assinaturas.removeIf(assinatura -> !assinatura.oferecer(evento));
+
+            if (evento.ultimo()) {
+                for (Assinatura assinatura : assinaturas) {
+                    if (assinatura.descartados > 0) {
+                        System.err.println(
+                                "[ATUALIZAÇÃO] Atualização " + id + ": " + assinatura.descartados
+                                        + " eventos descartados, cliente não acompanhou"
+                        );
+                    }
+                }
+                assinaturas.clear();
+            }
+        }
+
+        /**
+         * A fila comporta o que já foi publicado mais a capacidade normal, para quem
+         * chega no meio receber tudo desde o início.
+         */
+        synchronized Assinatura assinar(int capacidade) {
+            Assinatura assinatura = new Assinatura(eventos.size() + capacidade);
+            eventos.forEach(assinatura::oferecer);
+
+            if (eventos.isEmpty() || !eventos.get(eventos.size() - 1).ultimo()) {
+                assinaturas.add(assinatura);
+            }
+            return assinatura;
+        }
+
+        void concluir(EstadoAtualizacao estadoFinal, String mensagem) {
+            erro = mensagem;
+            concluidaEm = LocalDateTime.now();
+            estado = estadoFinal;
+        }
+
+        AtualizacaoResponseDTO paraDTO() {
+            List<ItemAtualizacaoResponseDTO> itensDTO = new ArrayList<>(itens.size());
+            for (Item item : itens.values()) {
+                itensDTO.add(new ItemAtualizacaoResponseDTO(
+                        item.produtoId, item.nome, item.estado, item.precoAtual
+                ));
+            }
+
+            return AtualizacaoResponseDTO.builder()
+                    .id(id)
+                    .listaId(listaId)
+                    .produtoId(produtoId)
+                    .estado(estado)
+                    .total(itensDTO.size())
+                    .concluidos(concluidos.get())
+                    .criadaEm(criadaEm)
+                    .iniciadaEm(iniciadaEm)
+                    .concluidaEm(concluidaEm)
+                    .erro(erro)
+                    .itens(itensDTO)
+                    .build();
+        }
+    }
+
+    private static final class Item {
+
+        final Long produtoId;
+        final String nome;
+
+        volatile String estado = "PENDENTE";
+        volatile BigDecimal precoAtual;
+
+        Item(Long produtoId, String nome, BigDecimal precoAtual) {
+            this.produtoId = produtoId;
+            this.nome = nome;
+            this.precoAtual = precoAtual;
+        }
+    }
+}
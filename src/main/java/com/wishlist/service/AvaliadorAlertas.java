@@ -0,0 +1,315 @@
+package com.wishlist.service;
+
+import com.wishlist.model.entity.AlertaPreco;
+import com.wishlist.model.entity.Produto;
+import com.wishlist.model.entity.ProdutoPrecoHistorico;
+import com.wishlist.model.enums.TipoAlerta;
+import com.wishlist.notificacao.AlertaDisparado;
+import com.wishlist.notificacao.NotificadorAlerta;
+import com.wishlist.repository.AlertaPrecoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Avalia os alertas de preço a cada histórico gravado, sem consultar o banco.
+ *
+ * As regras ativas ficam em memória indexadas pelo id do produto, então cada preço
+ * novo custa só as regras daquele produto. Preço alvo e queda percentual disparam
+ * uma vez ao entrar na condição e se rearmam quando o preço volta a ficar acima do
+ * limite; menor preço histórico dispara a cada novo mínimo, que passa a ser a
+ * referência. Só as mudanças de estado vão para o banco, e as notificações saem
+ * numa thread própria para não atrasar a gravação dos preços, e só depois que o
+ * estado foi gravado: se a gravação falhar, o estado em memória volta ao anterior e
+ * nada é notificado, então o próximo preço reavalia a condição.
+ */
+@Service
+public class AvaliadorAlertas {
+
+    private static final String ATUALIZAR_ESTADO =
+            "UPDATE alerta_preco SET disparado = ?, preco_referencia = ?, ultimo_disparo = ? WHERE id = ?";
+
+    private static final BigDecimal CEM = BigDecimal.valueOf(100);
+
+    private final AlertaPrecoRepository alertaPrecoRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<NotificadorAlerta> notificadores;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executorNotificacao;
+
+    private final Map<Long, List<Regra>> porProduto = new ConcurrentHashMap<>();
+
+    public AvaliadorAlertas(
+            AlertaPrecoRepository alertaPrecoRepository,
+            JdbcTemplate jdbcTemplate,
+            List<NotificadorAlerta> notificadores,
+            MeterRegistry meterRegistry
+    ) {
+        this.alertaPrecoRepository = alertaPrecoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificadores = notificadores;
+        this.meterRegistry = meterRegistry;
+
+        this.executorNotificacao = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notificacao-alertas");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("wishlist.alertas.regras", this, AvaliadorAlertas::getRegras)
+                .description("Alertas ativos no índice em memória")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        List<AlertaPreco> ativos = alertaPrecoRepository.findByAtivoTrue();
+        ativos.forEach(this::registrar);
+
+        System.out.println("[ALERTA] " + ativos.size() + " alertas ativos carregados");
+    }
+
+    /**
+     * Coloca o alerta no índice, substituindo a versão anterior; inativos só saem dele.
+     * Se o tipo e o valor não mudaram, a regra em memória continua a mesma: o estado
+     * dela é o mais recente (pode ter mudado depois que o alerta foi lido do banco) e
+     * uma avaliação em andamento não perde o que gravar nela.
+     */
+    public void registrar(AlertaPreco alerta) {
+        porProduto.compute(alerta.getProdutoId(), (produtoId, regras) -> {
+            if (regras == null) {
+                regras = new CopyOnWriteArrayList<>();
+            }
+            if (alerta.isAtivo() && regras.stream().anyMatch(regra -> regra.mesmaConfiguracao(alerta))) {
+                return regras;
+            }
+            regras.removeIf(regra -> regra.id.equals(alerta.getId()));
+            if (alerta.isAtivo()) {
+                regras.add(new Regra(alerta));
+            }
+            return regras.isEmpty() ? null : regras;
+        });
+    }
+
+    public void remover(Long produtoId, Long alertaId) {
+        porProduto.computeIfPresent(produtoId, (id, regras) -> {
+            regras.removeIf(regra -> regra.id.equals(alertaId));
+            return regras.isEmpty() ? null : regras;
+        });
+    }
+
+    public void removerProduto(Long produtoId) {
+        porProduto.remove(produtoId);
+    }
+
+    /**
+     * Avalia os históricos recém-gravados contra as regras dos produtos deles.
+     */
+    public void avaliar(List<ProdutoPrecoHistorico> historicos) {
+        if (porProduto.isEmpty() || historicos.isEmpty()) {
+            return;
+        }
+
+        List<Avaliacao> alteradas = new ArrayList<>();
+
+        for (ProdutoPrecoHistorico historico : historicos) {
+            List<Regra> regras = porProduto.get(historico.getProduto().getId());
+            if (regras == null) {
+                continue;
+            }
+
+            for (Regra regra : regras) {
+                Estado estado = regra.avaliar(historico.getPreco(), historico.getDataColeta());
+                if (estado != null) {
+                    alteradas.add(new Avaliacao(regra, estado, historico));
+                }
+            }
+        }
+
+        if (alteradas.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(ATUALIZAR_ESTADO, alteradas, alteradas.size(), (ps, avaliacao) -> {
+                Situacao nova = avaliacao.estado().nova();
+                ps.setBoolean(1, nova.disparado());
+                ps.setBigDecimal(2, nova.referencia());
+                ps.setTimestamp(3, nova.ultimoDisparo() != null ? Timestamp.valueOf(nova.ultimoDisparo()) : null);
+                ps.setLong(4, avaliacao.regra().id);
+            });
+        } catch (RuntimeException e) {
+            for (Avaliacao avaliacao : alteradas) {
+                avaliacao.regra().reverter(avaliacao.estado());
+            }
+            System.err.println(
+                    "[ALERTA] Erro ao gravar o estado de " + alteradas.size()
+                            + " alertas, nenhum foi notificado: " + e.getMessage()
+            );
+            return;
+        }
+
+        for (Avaliacao avaliacao : alteradas) {
+            if (avaliacao.estado().disparou()) {
+                notificar(avaliacao.regra(), avaliacao.estado(), avaliacao.historico());
+            }
+        }
+    }
+
+    private void notificar(Regra regra, Estado estado, ProdutoPrecoHistorico historico) {
+        Produto produto = historico.getProduto();
+        AlertaDisparado alerta = new AlertaDisparado(
+                regra.id,
+                produto.getId(),
+                produto.getNome(),
+                produto.getLink(),
+                regra.tipo,
+                regra.valor,
+                estado.limite(),
+                historico.getPreco(),
+                estado.nova().ultimoDisparo()
+        );
+
+        meterRegistry.counter("wishlist.alertas.disparados", "tipo", regra.tipo.name()).increment();
+
+        executorNotificacao.execute(() -> {
+            for (NotificadorAlerta notificador : notificadores) {
+                try {
+                    notificador.notificar(alerta);
+                } catch (Exception e) {
+                    System.err.println("[ALERTA] Erro ao notificar alerta " + alerta.alertaId() + ": " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    public int getRegras() {
+        int total = 0;
+        for (List<Regra> regras : porProduto.values()) {
+            total += regras.size();
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executorNotificacao.shutdown();
+    }
+
+    /**
+     * Preço que dispara o alerta: o próprio alvo, a referência menos o percentual ou,
+     * no menor preço histórico, qualquer valor abaixo da referência.
+     */
+    static BigDecimal limite(TipoAlerta tipo, BigDecimal valor, BigDecimal referencia) {
+        return switch (tipo) {
+            case PRECO_ALVO -> valor;
+            case QUEDA_PERCENTUAL -> referencia.multiply(CEM.subtract(valor))
+                    .divide(CEM, 2, RoundingMode.HALF_UP);
+            case MENOR_PRECO_HISTORICO -> referencia;
+        };
+    }
+
+    private static final class Regra {
+
+        final Long id;
+        final TipoAlerta tipo;
+        final BigDecimal valor;
+
+        BigDecimal referencia;
+        boolean disparado;
+        LocalDateTime ultimoDisparo;
+
+        Regra(AlertaPreco alerta) {
+            this.id = alerta.getId();
+            this.tipo = alerta.getTipo();
+            this.valor = alerta.getValor();
+            this.referencia = alerta.getPrecoReferencia();
+            this.disparado = alerta.isDisparado();
+            this.ultimoDisparo = alerta.getUltimoDisparo();
+        }
+
+        boolean mesmaConfiguracao(AlertaPreco alerta) {
+            return id.equals(alerta.getId()) && tipo == alerta.getTipo() && Objects.equals(valor, alerta.getValor());
+        }
+
+        /**
+         * Aplica o preço novo e devolve o estado resultante, ou null se nada mudou.
+         */
+        synchronized Estado avaliar(BigDecimal preco, LocalDateTime momento) {
+            Situacao anterior = situacao();
+
+            if (tipo == TipoAlerta.MENOR_PRECO_HISTORICO) {
+                // Sem histórico anterior, o primeiro preço só vira a referência
+                if (referencia == null) {
+                    referencia = preco;
+                    return new Estado(situacao(), anterior, null, false);
+                }
+                if (preco.compareTo(referencia) >= 0) {
+                    return null;
+                }
+                referencia = preco;
+                ultimoDisparo = momento;
+                return new Estado(situacao(), anterior, anterior.referencia(), true);
+            }
+
+            BigDecimal limite = limite(tipo, valor, referencia);
+            boolean atingido = preco.compareTo(limite) <= 0;
+
+            if (atingido == disparado) {
+                return null;
+            }
+
+            disparado = atingido;
+            if (atingido) {
+                ultimoDisparo = momento;
+            }
+            return new Estado(situacao(), anterior, limite, atingido);
+        }
+
+        /**
+         * Desfaz uma avaliação cujo estado não foi gravado, a menos que outra já tenha
+         * mudado a regra depois dela.
+         */
+        synchronized void reverter(Estado estado) {
+            if (situacao().equals(estado.nova())) {
+                disparado = estado.anterior().disparado();
+                referencia = estado.anterior().referencia();
+                ultimoDisparo = estado.anterior().ultimoDisparo();
+            }
+        }
+
+        private Situacao situacao() {
+            return new Situacao(disparado, referencia, ultimoDisparo);
+        }
+    }
+
+    private record Situacao(boolean disparado, BigDecimal referencia, LocalDateTime ultimoDisparo) {
+    }
+
+    /**
+     * Resultado de uma avaliação que mudou a regra: a situação nova, a anterior (para
+     * desfazer se a gravação falhar), o limite aplicado e se o alerta disparou.
+     */
+    private record Estado(Situacao nova, Situacao anterior, BigDecimal limite, boolean disparou) {
+    }
+
+    private record Avaliacao(Regra regra, Estado estado, ProdutoPrecoHistorico historico) {
+    }
+}
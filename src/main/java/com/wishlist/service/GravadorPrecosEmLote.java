@@ -0,0 +1,370 @@
+package com.wishlist.service;
+
+import com.wishlist.model.entity.Produto;
+import com.wishlist.model.entity.ProdutoPrecoHistorico;
+import com.wishlist.scraper.ScrapeResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind das atualizações feitas pelo motor de preços.
+ *
+ * Os produtos atualizados ficam em memória e são gravados em lote, numa única
+ * transação, quando o buffer atinge o tamanho configurado ou quando o intervalo
+ * de descarga expira. Históricos e produtos vão como batches JDBC, que o driver
+ * do MySQL reescreve em INSERTs de várias linhas (rewriteBatchedStatements).
+ *
+ * Se o lote falha por causa de uma linha (um preço que não cabe na coluna, por exemplo),
+ * ele é dividido ao meio até isolar a linha, e os outros produtos são gravados. Os que
+ * falham, sozinhos ou com o lote todo quando o problema é do banco, voltam para o início
+ * do buffer e são tentados de novo nas próximas descargas; só depois do número máximo de
+ * tentativas são descartados, com erro no log e na métrica wishlist.gravacao.descartados.
+ * Quem enfileira fica sabendo do fim de cada produto pela {@link Confirmacao}.
+ */
+@Component
+public class GravadorPrecosEmLote {
+
+    /**
+     * produto_preco_historico não tem mais FK (V3), então o insert só vale para produtos
+     * que ainda existem: um produto removido no meio da execução não deixa histórico órfão.
+     */
+    private static final String INSERT_HISTORICO = """
+            INSERT INTO produto_preco_historico (produto_id, preco, loja, data_coleta)
+            SELECT ?, ?, ?, ? FROM DUAL
+            WHERE EXISTS (SELECT 1 FROM produto WHERE id = ?)
+            """;
+
+    /**
+     * Só o preço e a data vêm do scraping. A imagem só é trocada quando a página trouxe
+     * uma e o nome só preenche um nome vazio, para não desfazer edições feitas durante a execução.
+     */
+    private static final String UPDATE_PRODUTO = """
+            UPDATE produto
+            SET preco_atual = ?,
+                ultima_atualizacao = ?,
+                imagem_url = COALESCE(?, imagem_url),
+                nome = COALESCE(NULLIF(nome, ''), ?)
+            WHERE id = ?
+            """;
+
+    private final ProdutoService produtoService;
+    private final InvalidadorCache invalidadorCache;
+    private final ResumoDiarioPrecos resumoDiarioPrecos;
+    private final AvaliadorAlertas avaliadorAlertas;
+    private final UltimoPrecoCache ultimoPrecoCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final int maximoTentativas;
+    private final ScheduledExecutorService agendador;
+
+    private final Timer tempoGravacao;
+    private final Counter historicosGravados;
+    private final Counter produtosGravados;
+    private final Counter produtosDescartados;
+
+    private final Object bufferLock = new Object();
+    private final ReentrantLock descargaLock = new ReentrantLock();
+    private List<AtualizacaoPendente> buffer = new ArrayList<>();
+
+    public GravadorPrecosEmLote(
+            ProdutoService produtoService,
+            InvalidadorCache invalidadorCache,
+            ResumoDiarioPrecos resumoDiarioPrecos,
+            AvaliadorAlertas avaliadorAlertas,
+            UltimoPrecoCache ultimoPrecoCache,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${wishlist.gravacao.tamanho-lote:200}") int tamanhoLote,
+            @Value("${wishlist.gravacao.intervalo-ms:2000}") long intervaloMs,
+            @Value("${wishlist.gravacao.maximo-tentativas:5}") int maximoTentativas
+    ) {
+        this.produtoService = produtoService;
+        this.invalidadorCache = invalidadorCache;
+        this.resumoDiarioPrecos = resumoDiarioPrecos;
+        this.avaliadorAlertas = avaliadorAlertas;
+        this.ultimoPrecoCache = ultimoPrecoCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.maximoTentativas = maximoTentativas;
+
+        this.tempoGravacao = Timer.builder("wishlist.gravacao.lote")
+                .description("Tempo da transação que grava um lote de produtos e históricos")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.historicosGravados = meterRegistry.counter("wishlist.historico.gravados", "origem", "lote");
+        this.produtosGravados = meterRegistry.counter("wishlist.gravacao.produtos");
+        this.produtosDescartados = meterRegistry.counter("wishlist.gravacao.descartados");
+
+        this.agendador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gravador-precos");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.agendador.scheduleWithFixedDelay(
+                this::descarregarComSeguranca, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Recebe o fim da gravação de um produto, uma única vez, na thread que descarregou o
+     * lote: erro null depois do commit, ou o motivo se ele foi descartado. precoAlterado
+     * diz se a gravação incluía um novo histórico, como o retorno de {@link #enfileirar}.
+     */
+    @FunctionalInterface
+    public interface Confirmacao {
+
+        void concluido(boolean precoAlterado, String erro);
+    }
+
+    /**
+     * Aplica o resultado ao produto e coloca a gravação na fila do próximo lote.
+     * Devolve true se o preço mudou (um novo histórico foi enfileirado). Uma falha ao
+     * gravar o lote não é repassada ao chamador: o lote fica no buffer para a próxima
+     * descarga, e o desfecho chega pela confirmação, que pode rodar antes deste método
+     * retornar se o buffer encher aqui.
+     */
+    public boolean enfileirar(Produto produto, ScrapeResult resultado, Confirmacao confirmacao) {
+        ProdutoPrecoHistorico historico = produtoService.aplicarResultado(produto, resultado);
+
+        String imagem = resultado.getImage() != null && !resultado.getImage().isBlank()
+                ? resultado.getImage()
+                : null;
+
+        boolean cheio;
+        synchronized (bufferLock) {
+            buffer.add(new AtualizacaoPendente(produto, historico, imagem, resultado.getName(), confirmacao, 0));
+            cheio = buffer.size() >= tamanhoLote;
+        }
+
+        // Daqui em diante o desfecho é da confirmação: um erro na descarga não volta ao chamador
+        if (cheio) {
+            descarregarComSeguranca();
+        }
+        return historico != null;
+    }
+
+    /**
+     * Grava tudo que está pendente. Chamado ao final de cada execução do motor.
+     * Se a transação falhar, os que não forem gravados voltam para o buffer (ver {@link #devolver}).
+     */
+    public void descarregar() {
+        descargaLock.lock();
+        try {
+            List<AtualizacaoPendente> pendentes;
+            synchronized (bufferLock) {
+                if (buffer.isEmpty()) {
+                    return;
+                }
+                pendentes = buffer;
+                buffer = new ArrayList<>();
+            }
+            gravar(pendentes);
+        } finally {
+            descargaLock.unlock();
+        }
+    }
+
+    private void gravar(List<AtualizacaoPendente> pendentes) {
+        List<AtualizacaoPendente> falhas = new ArrayList<>();
+        RuntimeException erro = gravarIsolando(pendentes, falhas);
+        if (erro != null) {
+            devolver(falhas, erro);
+        }
+    }
+
+    /**
+     * Grava o lote e, se ele falhar por causa de alguma linha, grava cada metade em separado,
+     * até sobrarem só as linhas com problema. Essas vão para falhas, na ordem original,
+     * e só elas gastam tentativas. Devolve o último erro, ou null se tudo foi gravado.
+     */
+    private RuntimeException gravarIsolando(List<AtualizacaoPendente> pendentes, List<AtualizacaoPendente> falhas) {
+        List<ProdutoPrecoHistorico> historicos = pendentes.stream()
+                .map(AtualizacaoPendente::historico)
+                .filter(Objects::nonNull)
+                .toList();
+
+        try {
+            tempoGravacao.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                // O produto vai primeiro: a linha fica bloqueada até o commit, então uma
+                // remoção concorrente espera este lote ou já terminou e os inserts abaixo a ignoram
+                jdbcTemplate.batchUpdate(UPDATE_PRODUTO, pendentes, tamanhoLote, (ps, pendente) -> {
+                    Produto produto = pendente.produto();
+                    ps.setBigDecimal(1, produto.getPrecoAtual());
+                    ps.setTimestamp(2, Timestamp.valueOf(produto.getUltimaAtualizacao()));
+                    ps.setString(3, pendente.imagem());
+                    ps.setString(4, pendente.nome());
+                    ps.setLong(5, produto.getId());
+                });
+
+                jdbcTemplate.batchUpdate(INSERT_HISTORICO, historicos, tamanhoLote, (ps, historico) -> {
+                    ps.setLong(1, historico.getProduto().getId());
+                    ps.setBigDecimal(2, historico.getPreco());
+                    ps.setString(3, historico.getLoja());
+                    ps.setTimestamp(4, Timestamp.valueOf(historico.getDataColeta()));
+                    ps.setLong(5, historico.getProduto().getId());
+                });
+                resumoDiarioPrecos.registrar(historicos);
+            }));
+        } catch (RuntimeException e) {
+            if (pendentes.size() == 1 || falhaDoBanco(e)) {
+                falhas.addAll(pendentes);
+                return e;
+            }
+
+            System.err.println(
+                    "[GRAVAÇÃO] Erro ao gravar lote de " + pendentes.size() + " produtos ("
+                            + e.getMessage() + "); dividindo para isolar a linha com problema"
+            );
+            int meio = pendentes.size() / 2;
+            RuntimeException primeira = gravarIsolando(pendentes.subList(0, meio), falhas);
+            RuntimeException segunda = gravarIsolando(pendentes.subList(meio, pendentes.size()), falhas);
+            return segunda != null ? segunda : primeira;
+        }
+
+        // Só depois do commit: se o lote falhar, a próxima coleta ainda vê o preço como novo
+        try {
+            for (ProdutoPrecoHistorico historico : historicos) {
+                ultimoPrecoCache.registrar(historico.getProduto().getId(), historico.getPreco());
+            }
+            for (AtualizacaoPendente pendente : pendentes) {
+                invalidadorCache.produtoAlterado(pendente.produto());
+            }
+        } finally {
+            // Depois dos caches, para quem é avisado já ler o preço novo; e sempre, pois o lote está gravado
+            for (AtualizacaoPendente pendente : pendentes) {
+                confirmar(pendente, null);
+            }
+        }
+        // O lote já está gravado: um erro nos alertas não pode parecer falha da gravação
+        try {
+            avaliadorAlertas.avaliar(historicos);
+        } catch (RuntimeException e) {
+            System.err.println("[ALERTA] Erro ao avaliar alertas do lote: " + e.getMessage());
+        }
+
+        historicosGravados.increment(historicos.size());
+        produtosGravados.increment(pendentes.size());
+
+        System.out.println(
+                "[GRAVAÇÃO] " + pendentes.size() + " produtos e "
+                        + historicos.size() + " históricos gravados em lote"
+        );
+        return null;
+    }
+
+    /**
+     * Banco fora do ar, conexão perdida, timeout ou deadlock: o lote inteiro falharia de novo
+     * em qualquer divisão, então volta todo para o buffer em vez de ser gravado linha a linha.
+     */
+    private static boolean falhaDoBanco(RuntimeException erro) {
+        return erro instanceof TransientDataAccessException
+                || erro instanceof DataAccessResourceFailureException
+                || erro instanceof TransactionException;
+    }
+
+    /**
+     * Coloca de volta no início do buffer os pendentes que não foram gravados, na ordem
+     * original, para irem antes dos que chegaram depois. Os que já esgotaram as
+     * tentativas são descartados; como o último preço só é registrado depois do commit,
+     * a próxima coleta desses produtos volta a gerar o histórico.
+     */
+    private void devolver(List<AtualizacaoPendente> pendentes, RuntimeException erro) {
+        List<AtualizacaoPendente> devolvidos = new ArrayList<>(pendentes.size());
+
+        for (AtualizacaoPendente pendente : pendentes) {
+            if (pendente.tentativas() + 1 < maximoTentativas) {
+                devolvidos.add(pendente.novaTentativa());
+            } else {
+                descartar(pendente, "Não gravado após " + maximoTentativas + " tentativas: " + erro.getMessage());
+            }
+        }
+
+        System.err.println(
+                "[GRAVAÇÃO] " + pendentes.size() + " produtos não gravados ("
+                        + erro.getMessage() + "); " + devolvidos.size() + " voltam para o buffer"
+        );
+
+        synchronized (bufferLock) {
+            devolvidos.addAll(buffer);
+            buffer = devolvidos;
+        }
+    }
+
+    private void descartar(AtualizacaoPendente pendente, String motivo) {
+        produtosDescartados.increment();
+        System.err.println("[GRAVAÇÃO] Produto ID " + pendente.produto().getId() + " descartado: " + motivo);
+        confirmar(pendente, motivo);
+    }
+
+    private void confirmar(AtualizacaoPendente pendente, String erro) {
+        try {
+            pendente.confirmacao().concluido(pendente.historico() != null, erro);
+        } catch (RuntimeException e) {
+            System.err.println(
+                    "[GRAVAÇÃO] Erro ao confirmar produto ID " + pendente.produto().getId() + ": " + e.getMessage()
+            );
+        }
+    }
+
+    private void descarregarComSeguranca() {
+        try {
+            descarregar();
+        } catch (Exception e) {
+            System.err.println("[GRAVAÇÃO] Erro ao gravar lote: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdown();
+        descarregarComSeguranca();
+
+        // O que não foi gravado nem na última descarga não terá outra: quem espera a confirmação é liberado
+        List<AtualizacaoPendente> restantes;
+        synchronized (bufferLock) {
+            restantes = buffer;
+            buffer = new ArrayList<>();
+        }
+        for (AtualizacaoPendente pendente : restantes) {
+            descartar(pendente, "Aplicação encerrada antes da gravação");
+        }
+    }
+
+    /**
+     * imagem e nome são os que vieram da página, ou null se ela não trouxe.
+     */
+    private record AtualizacaoPendente(
+            Produto produto,
+            ProdutoPrecoHistorico historico,
+            String imagem,
+            String nome,
+            Confirmacao confirmacao,
+            int tentativas
+    ) {
+
+        AtualizacaoPendente novaTentativa() {
+            return new AtualizacaoPendente(produto, historico, imagem, nome, confirmacao, tentativas + 1);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.wishlist.service;
+
+import com.wishlist.config.CacheConfig;
+import com.wishlist.model.entity.Produto;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remove dos caches de leitura só as entradas afetadas por uma escrita.
+ *
+ * Dentro de uma transação a remoção espera o commit; antes dele uma leitura
+ * concorrente ainda veria o banco antigo e recolocaria o valor velho no cache.
+ */
+@Component
+public class InvalidadorCache {
+
+    private final CacheManager cacheManager;
+
+    public InvalidadorCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Produto incluído, alterado ou removido: ele, as leituras da lista dele e o
+     * resumo das listas (que traz quantidade e valor total de cada uma).
+     */
+    public void produtoAlterado(Produto produto) {
+        Long listaId = produto.getLista() != null ? produto.getLista().getId() : null;
+
+        aposCommit(() -> {
+            remover(CacheConfig.PRODUTO, produto.getId());
+            removerDaLista(listaId);
+            limpar(CacheConfig.LISTAS);
+        });
+    }
+
+    public void listaAlterada(Long listaId) {
+        aposCommit(() -> removerDaLista(listaId));
+    }
+
+    public void listasAlteradas() {
+        aposCommit(() -> limpar(CacheConfig.LISTAS));
+    }
+
+    private void removerDaLista(Long listaId) {
+        if (listaId != null) {
+            remover(CacheConfig.PRODUTOS_POR_LISTA, listaId);
+            remover(CacheConfig.TOTAL_LISTA, listaId);
+        }
+    }
+
+    private void remover(String nome, Object chave) {
+        Cache cache = cacheManager.getCache(nome);
+        if (cache != null && chave != null) {
+            cache.evict(chave);
+        }
+    }
+
+    private void limpar(String nome) {
+        Cache cache = cacheManager.getCache(nome);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
@@ -1,9 +1,17 @@
 package com.wishlist.service;
 
+import com.wishlist.config.CacheConfig;
+import com.wishlist.model.dto.ListaResponseDTO;
 import com.wishlist.model.entity.Lista;
+import com.wishlist.model.entity.Produto;
+import com.wishlist.repository.AlertaPrecoRepository;
 import com.wishlist.repository.ListaRepository;
+import com.wishlist.repository.ProdutoPrecoDiarioRepository;
+import com.wishlist.repository.ProdutoPrecoHistoricoRepository;
 import com.wishlist.repository.ProdutoRepository;
+import com.wishlist.scraper.ScraperClient;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,18 +22,45 @@ public class ListaService {
 
     private final ListaRepository listaRepository;
     private final ProdutoRepository produtoRepository;
+    private final ProdutoPrecoHistoricoRepository produtoPrecoHistoricoRepository;
+    private final ProdutoPrecoDiarioRepository produtoPrecoDiarioRepository;
+    private final AlertaPrecoRepository alertaPrecoRepository;
+    private final AvaliadorAlertas avaliadorAlertas;
+    private final UltimoPrecoCache ultimoPrecoCache;
+    private final InvalidadorCache invalidadorCache;
+    private final ScraperClient scraperClient;
 
-    public ListaService(ListaRepository listaRepository, ProdutoRepository produtoRepository) {
+    public ListaService(
+            ListaRepository listaRepository,
+            ProdutoRepository produtoRepository,
+            ProdutoPrecoHistoricoRepository produtoPrecoHistoricoRepository,
+            ProdutoPrecoDiarioRepository produtoPrecoDiarioRepository,
+            AlertaPrecoRepository alertaPrecoRepository,
+            AvaliadorAlertas avaliadorAlertas,
+            UltimoPrecoCache ultimoPrecoCache,
+            InvalidadorCache invalidadorCache,
+            ScraperClient scraperClient
+    ) {
         this.listaRepository = listaRepository;
         this.produtoRepository = produtoRepository;
+        this.produtoPrecoHistoricoRepository = produtoPrecoHistoricoRepository;
+        this.produtoPrecoDiarioRepository = produtoPrecoDiarioRepository;
+        this.alertaPrecoRepository = alertaPrecoRepository;
+        this.avaliadorAlertas = avaliadorAlertas;
+        this.ultimoPrecoCache = ultimoPrecoCache;
+        this.invalidadorCache = invalidadorCache;
+        this.scraperClient = scraperClient;
     }
 
-    public List<Lista> listarTodas() {
-        return listaRepository.findAll();
+    @Cacheable(CacheConfig.LISTAS)
+    public List<ListaResponseDTO> listarResumos() {
+        return listaRepository.buscarResumos();
     }
 
     public Lista criar(Lista lista) {
-        return listaRepository.save(lista);
+        Lista salva = listaRepository.save(lista);
+        invalidadorCache.listasAlteradas();
+        return salva;
     }
 
     @Transactional
@@ -33,6 +68,19 @@ public class ListaService {
         Lista lista = listaRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Lista não encontrada"));
 
+        // Os produtos saem junto com a lista (orphanRemoval)
+        for (Produto produto : lista.getProdutos()) {
+            invalidadorCache.produtoAlterado(produto);
+            ultimoPrecoCache.remover(produto.getId());
+            scraperClient.esquecerPagina(produto.getLink());
+            avaliadorAlertas.removerProduto(produto.getId());
+        }
+        invalidadorCache.listaAlterada(id);
+        invalidadorCache.listasAlteradas();
+
+        produtoPrecoHistoricoRepository.deleteByListaId(id);
+        produtoPrecoDiarioRepository.deleteByListaId(id);
+        alertaPrecoRepository.deleteByListaId(id);
         listaRepository.deleteById(id);
     }
 }
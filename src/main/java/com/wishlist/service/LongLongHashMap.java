@@ -0,0 +1,126 @@
+package com.wishlist.service;
+
+import java.util.Arrays;
+
+/**
+ * Mapa long → long com endereçamento aberto e sondagem linear, sem boxing.
+ * Ocupa dois long[] (16 bytes por posição), contra ~80 bytes por entrada de um
+ * HashMap&lt;Long, Long&gt;. Chaves devem ser positivas (0 marca posição vazia).
+ * Não é thread-safe.
+ */
+class LongLongHashMap {
+
+    static final long AUSENTE = Long.MIN_VALUE;
+
+    private static final float CARGA_MAXIMA = 0.6f;
+
+    private long[] chaves;
+    private long[] valores;
+    private int tamanho;
+    private int limite;
+
+    LongLongHashMap(int capacidadeInicial) {
+        int capacidade = Integer.highestOneBit(Math.max(16, (int) (capacidadeInicial / CARGA_MAXIMA)) - 1) << 1;
+        alocar(capacidade);
+    }
+
+    long get(long chave) {
+        int mascara = chaves.length - 1;
+        for (int i = indice(chave, mascara); ; i = (i + 1) & mascara) {
+            long atual = chaves[i];
+            if (atual == chave) {
+                return valores[i];
+            }
+            if (atual == 0) {
+                return AUSENTE;
+            }
+        }
+    }
+
+    void put(long chave, long valor) {
+        if (chave <= 0) {
+            throw new IllegalArgumentException("Chave deve ser positiva: " + chave);
+        }
+
+        int mascara = chaves.length - 1;
+        for (int i = indice(chave, mascara); ; i = (i + 1) & mascara) {
+            long atual = chaves[i];
+            if (atual == chave) {
+                valores[i] = valor;
+                return;
+            }
+            if (atual == 0) {
+                chaves[i] = chave;
+                valores[i] = valor;
+                if (++tamanho > limite) {
+                    redimensionar();
+                }
+                return;
+            }
+        }
+    }
+
+    void remove(long chave) {
+        int mascara = chaves.length - 1;
+        int i = indice(chave, mascara);
+
+        while (chaves[i] != chave) {
+            if (chaves[i] == 0) {
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+
+        // Remoção com deslocamento para trás, mantendo as cadeias de sondagem sem lápides
+        int vazio = i;
+        for (int j = (i + 1) & mascara; chaves[j] != 0; j = (j + 1) & mascara) {
+            int ideal = indice(chaves[j], mascara);
+            if (((j - ideal) & mascara) >= ((j - vazio) & mascara)) {
+                chaves[vazio] = chaves[j];
+                valores[vazio] = valores[j];
+                vazio = j;
+            }
+        }
+        chaves[vazio] = 0;
+        tamanho--;
+    }
+
+    int size() {
+        return tamanho;
+    }
+
+    void clear() {
+        Arrays.fill(chaves, 0);
+        tamanho = 0;
+    }
+
+    private void redimensionar() {
+        long[] chavesAntigas = chaves;
+        long[] valoresAntigos = valores;
+        alocar(chavesAntigas.length << 1);
+
+        int mascara = chaves.length - 1;
+        for (int k = 0; k < chavesAntigas.length; k++) {
+            long chave = chavesAntigas[k];
+            if (chave != 0) {
+                int i = indice(chave, mascara);
+                while (chaves[i] != 0) {
+                    i = (i + 1) & mascara;
+                }
+                chaves[i] = chave;
+                valores[i] = valoresAntigos[k];
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        valores = new long[capacidade];
+        limite = (int) (capacidade * CARGA_MAXIMA);
+    }
+
+    private static int indice(long chave, int mascara) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+}
@@ -0,0 +1,278 @@
+package com.wishlist.service;
+
+import com.wishlist.model.entity.Produto;
+import com.wishlist.model.enums.Loja;
+import com.wishlist.scraper.PriceScraper;
+import com.wishlist.scraper.ScrapeResult;
+import com.wishlist.scraper.ScraperClient;
+import com.wishlist.scraper.ScraperFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa a atualização de preços em paralelo.
+ *
+ * Os downloads são assíncronos e limitados por um teto global de requisições em
+ * andamento; o ritmo e o teto por loja ficam a cargo do ScraperClient. Só o parse
+ * ocupa threads, num pool de tamanho configurável.
+ * O leitor de produtos bloqueia quando o teto global é atingido (back-pressure), e os
+ * resultados seguem por uma thread dedicada para o GravadorPrecosEmLote, fora das
+ * threads que esperam a rede. O desfecho de um produto baixado só é contado (métricas,
+ * relatório, ouvinte) depois que o lote com ele foi gravado.
+ */
+@Service
+public class MotorAtualizacaoPrecos {
+
+    private final GravadorPrecosEmLote gravador;
+    private final ScraperFactory scraperFactory;
+    private final ScraperClient scraperClient;
+
+    private final Semaphore permissoesGlobais;
+    private final ExecutorService executorParse;
+    private final ExecutorService executorPersistencia;
+
+    private final Timer tempoExecucao;
+    private final Map<Loja, Map<Desfecho, Counter>> desfechos = new EnumMap<>(Loja.class);
+
+    public MotorAtualizacaoPrecos(
+            GravadorPrecosEmLote gravador,
+            ScraperFactory scraperFactory,
+            ScraperClient scraperClient,
+            MeterRegistry meterRegistry,
+            @Value("${wishlist.atualizacao.concorrencia-global:16}") int concorrenciaGlobal,
+            @Value("${wishlist.atualizacao.threads-parse:0}") int threadsParse
+    ) {
+        this.gravador = gravador;
+        this.scraperFactory = scraperFactory;
+        this.scraperClient = scraperClient;
+        this.permissoesGlobais = new Semaphore(concorrenciaGlobal);
+
+        this.executorParse = Executors.newFixedThreadPool(
+                threadsParse > 0 ? threadsParse : Runtime.getRuntime().availableProcessors(),
+                threads("parse-")
+        );
+        this.executorPersistencia = Executors.newSingleThreadExecutor(threads("persistencia-preco-"));
+
+        this.tempoExecucao = Timer.builder("wishlist.atualizacao.execucao")
+                .description("Duração de uma execução do motor, do primeiro produto ao último lote gravado")
+                .register(meterRegistry);
+
+        // A taxa de mudança de preço sai da razão entre preco_alterado e os demais desfechos
+        for (Loja loja : Loja.values()) {
+            Map<Desfecho, Counter> porDesfecho = new EnumMap<>(Desfecho.class);
+            for (Desfecho desfecho : Desfecho.values()) {
+                porDesfecho.put(desfecho, Counter.builder("wishlist.atualizacao.produtos")
+                        .description("Produtos processados pelo motor por loja e desfecho")
+                        .tag("loja", loja.name().toLowerCase(Locale.ROOT))
+                        .tag("desfecho", desfecho.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry));
+            }
+            desfechos.put(loja, porDesfecho);
+        }
+    }
+
+    /**
+     * Como terminou a atualização de um produto.
+     */
+    public enum Desfecho {
+        PRECO_ALTERADO,
+        PRECO_MANTIDO,
+        FALHA
+    }
+
+    /**
+     * Recebe o desfecho de cada produto assim que ele termina, na thread que o concluiu.
+     * PRECO_ALTERADO e PRECO_MANTIDO de páginas baixadas chegam depois do commit do lote,
+     * na thread que o gravou. Em FALHA, erro traz o motivo; nos demais desfechos é null.
+     */
+    @FunctionalInterface
+    public interface Ouvinte {
+
+        Ouvinte NENHUM = (produto, desfecho, erro) -> { };
+
+        void concluido(Produto produto, Desfecho desfecho, String erro);
+    }
+
+    /**
+     * Atualiza apenas os produtos informados e bloqueia até o fim da execução.
+     * Com condicional, páginas iguais às da última coleta não são baixadas de novo
+     * (o agendador); sem, toda página é baixada e extraída (atualizações pedidas pelo usuário).
+     */
+    public RelatorioAtualizacao atualizar(List<Produto> produtos, boolean condicional, Ouvinte ouvinte) {
+        Execucao execucao = new Execucao(condicional, ouvinte);
+
+        for (Produto produto : produtos) {
+            execucao.submeter(produto);
+        }
+
+        return execucao.aguardar();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executorParse.shutdownNow();
+        executorPersistencia.shutdown();
+    }
+
+    private class Execucao {
+
+        private final RelatorioAtualizacao relatorio = new RelatorioAtualizacao();
+        // Produtos ainda no scraping ou a caminho do gravador
+        private final Phaser pendentes = new Phaser(1);
+        // Produtos entregues ao gravador esperando o commit do lote
+        private final Phaser aGravar = new Phaser(1);
+        private final boolean condicional;
+        private final Ouvinte ouvinte;
+
+        Execucao(boolean condicional, Ouvinte ouvinte) {
+            this.condicional = condicional;
+            this.ouvinte = ouvinte;
+        }
+
+        void submeter(Produto produto) {
+            PriceScraper scraper = scraperFactory.findScraper(produto.getLink()).orElse(null);
+            if (scraper == null) {
+                relatorio.registrarFalha();
+                notificar(produto, Desfecho.FALHA, "Loja não suportada para o link do produto");
+                return;
+            }
+
+            // Back-pressure: o leitor espera enquanto o teto global estiver ocupado
+            permissoesGlobais.acquireUninterruptibly();
+            pendentes.register();
+
+            long inicio = System.nanoTime();
+
+            try {
+                scraperClient.scrapeAsync(scraper, produto.getLink(), condicional, executorParse)
+                        .whenComplete((resultado, erro) ->
+                                concluirScrape(produto, scraper, resultado, erro, inicio));
+            } catch (RuntimeException e) {
+                finalizar();
+                throw e;
+            }
+        }
+
+        private void concluirScrape(
+                Produto produto,
+                PriceScraper scraper,
+                ScrapeResult resultado,
+                Throwable erro,
+                long inicio
+        ) {
+            relatorio.registrarScrape(scraper.getLoja(), System.nanoTime() - inicio, erro == null);
+
+            if (erro != null) {
+                Throwable causa = erro instanceof CompletionException && erro.getCause() != null
+                        ? erro.getCause()
+                        : erro;
+                relatorio.registrarFalha();
+                System.err.println("[JOB] Erro no ID " + produto.getId() + ": " + causa.getMessage());
+                notificar(produto, Desfecho.FALHA, causa.getMessage());
+                finalizar();
+                return;
+            }
+
+            if (resultado.isNotModified()) {
+                // Página igual à da última coleta: nada para parsear nem gravar
+                relatorio.registrarInalterado();
+                notificar(produto, Desfecho.PRECO_MANTIDO, null);
+                finalizar();
+                return;
+            }
+
+            try {
+                executorPersistencia.execute(() -> persistir(produto, resultado));
+            } catch (RuntimeException e) {
+                relatorio.registrarFalha();
+                notificar(produto, Desfecho.FALHA, e.getMessage());
+                finalizar();
+            }
+        }
+
+        /**
+         * Entrega ao gravador e libera a permissão global já; o desfecho fica para a
+         * confirmação do lote, para não anunciar um preço que ainda pode não ser gravado.
+         */
+        private void persistir(Produto produto, ScrapeResult resultado) {
+            aGravar.register();
+            try {
+                gravador.enfileirar(produto, resultado, (precoAlterado, erro) -> gravado(produto, precoAlterado, erro));
+            } catch (Exception e) {
+                relatorio.registrarFalha();
+                System.err.println("[JOB] Erro no ID " + produto.getId() + ": " + e.getMessage());
+                notificar(produto, Desfecho.FALHA, e.getMessage());
+                aGravar.arriveAndDeregister();
+            } finally {
+                finalizar();
+            }
+        }
+
+        private void gravado(Produto produto, boolean precoAlterado, String erro) {
+            try {
+                if (erro != null) {
+                    relatorio.registrarFalha();
+                    notificar(produto, Desfecho.FALHA, erro);
+                } else {
+                    relatorio.registrarSucesso();
+                    notificar(produto, precoAlterado ? Desfecho.PRECO_ALTERADO : Desfecho.PRECO_MANTIDO, null);
+                }
+            } finally {
+                aGravar.arriveAndDeregister();
+            }
+        }
+
+        private void notificar(Produto produto, Desfecho desfecho, String erro) {
+            Loja loja = produto.getLoja() != null ? produto.getLoja() : Loja.DESCONHECIDA;
+            desfechos.get(loja).get(desfecho).increment();
+
+            try {
+                ouvinte.concluido(produto, desfecho, erro);
+            } catch (RuntimeException e) {
+                System.err.println("[JOB] Erro no ouvinte do ID " + produto.getId() + ": " + e.getMessage());
+            }
+        }
+
+        private void finalizar() {
+            permissoesGlobais.release();
+            pendentes.arriveAndDeregister();
+        }
+
+        /**
+         * Um lote que falha fica no buffer do gravador e é tentado de novo nas descargas
+         * periódicas, então a espera pelo último commit pode passar desta descarga.
+         */
+        RelatorioAtualizacao aguardar() {
+            pendentes.arriveAndAwaitAdvance();
+            gravador.descarregar();
+            aGravar.arriveAndAwaitAdvance();
+            tempoExecucao.record(relatorio.getDuracao());
+            return relatorio;
+        }
+    }
+
+    private static ThreadFactory threads(String prefixo) {
+        AtomicInteger contador = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefixo + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
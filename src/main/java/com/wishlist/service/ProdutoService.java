@@ -1,26 +1,40 @@
 package com.wishlist.service;
 
+import com.wishlist.config.CacheConfig;
+import com.wishlist.model.dto.PrecoOhlcResponseDTO;
 import com.wishlist.model.dto.ProdutoPrecoHistoricoResponseDTO;
 import com.wishlist.model.dto.ProdutoRequestDTO;
 import com.wishlist.model.dto.ProdutoResponseDTO;
 import com.wishlist.model.entity.Lista;
 import com.wishlist.model.entity.Produto;
 import com.wishlist.model.enums.Loja;
+import com.wishlist.repository.AlertaPrecoRepository;
 import com.wishlist.repository.ListaRepository;
+import com.wishlist.repository.ProdutoPrecoDiarioRepository;
 import com.wishlist.repository.ProdutoRepository;
 import com.wishlist.scraper.PriceScraper;
+import com.wishlist.scraper.ScrapeResult;
+import com.wishlist.scraper.ScraperClient;
 import com.wishlist.scraper.ScraperFactory;
+import com.wishlist.model.entity.ProdutoPrecoDiario;
 import com.wishlist.model.entity.ProdutoPrecoHistorico;
 import com.wishlist.repository.ProdutoPrecoHistoricoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class ProdutoService {
@@ -28,18 +42,42 @@ public class ProdutoService {
     private final ProdutoRepository produtoRepository;
     private final ListaRepository listaRepository;
     private final ScraperFactory scraperFactory;
+    private final ScraperClient scraperClient;
     private final ProdutoPrecoHistoricoRepository produtoPrecoHistoricoRepository;
+    private final ProdutoPrecoDiarioRepository produtoPrecoDiarioRepository;
+    private final ResumoDiarioPrecos resumoDiarioPrecos;
+    private final AlertaPrecoRepository alertaPrecoRepository;
+    private final AvaliadorAlertas avaliadorAlertas;
+    private final UltimoPrecoCache ultimoPrecoCache;
+    private final InvalidadorCache invalidadorCache;
+    private final Counter historicosGravados;
 
     public ProdutoService(
             ProdutoRepository produtoRepository,
             ListaRepository listaRepository,
             ScraperFactory scraperFactory,
-            ProdutoPrecoHistoricoRepository produtoPrecoHistoricoRepository
+            ScraperClient scraperClient,
+            ProdutoPrecoHistoricoRepository produtoPrecoHistoricoRepository,
+            ProdutoPrecoDiarioRepository produtoPrecoDiarioRepository,
+            ResumoDiarioPrecos resumoDiarioPrecos,
+            AlertaPrecoRepository alertaPrecoRepository,
+            AvaliadorAlertas avaliadorAlertas,
+            UltimoPrecoCache ultimoPrecoCache,
+            InvalidadorCache invalidadorCache,
+            MeterRegistry meterRegistry
     ) {
         this.produtoRepository = produtoRepository;
         this.listaRepository = listaRepository;
         this.scraperFactory = scraperFactory;
+        this.scraperClient = scraperClient;
         this.produtoPrecoHistoricoRepository = produtoPrecoHistoricoRepository;
+        this.produtoPrecoDiarioRepository = produtoPrecoDiarioRepository;
+        this.resumoDiarioPrecos = resumoDiarioPrecos;
+        this.alertaPrecoRepository = alertaPrecoRepository;
+        this.avaliadorAlertas = avaliadorAlertas;
+        this.ultimoPrecoCache = ultimoPrecoCache;
+        this.invalidadorCache = invalidadorCache;
+        this.historicosGravados = meterRegistry.counter("wishlist.historico.gravados", "origem", "direta");
     }
 
     public ProdutoResponseDTO adicionar(ProdutoRequestDTO dto) {
@@ -55,8 +93,10 @@ public class ProdutoService {
         produto.setLink(dto.getLink());
         produto.setLista(lista);
 
-        if (hasScraper(dto.getLink())) {
-            preencherComScraper(produto, dto);
+        Optional<PriceScraper> scraper = scraperFactory.findScraper(dto.getLink());
+
+        if (scraper.isPresent()) {
+            preencherComScraper(produto, dto, scraper.get());
         } else {
             validarCamposObrigatoriosSemScraper(dto);
             preencherManual(produto, dto);
@@ -68,22 +108,30 @@ public class ProdutoService {
         Produto salvo = produtoRepository.save(produto);
 
         salvarHistoricoPreco(salvo, salvo.getPrecoAtual());
+        invalidadorCache.produtoAlterado(salvo);
 
         return mapToResponseDTO(salvo);
     }
 
     private void preencherComScraper(
             Produto produto,
-            ProdutoRequestDTO dto
+            ProdutoRequestDTO dto,
+            PriceScraper scraper
     ) {
-        PriceScraper scraper = scraperFactory.getScraper(dto.getLink());
-
         produto.setLoja(scraper.getLoja());
 
-        if (dto.getNome() != null && !dto.getNome().isBlank()) {
+        boolean nomeInformado = dto.getNome() != null && !dto.getNome().isBlank();
+
+        // Só baixa a página se algum campo não veio no DTO, e no máximo uma vez
+        ScrapeResult resultado =
+                nomeInformado && dto.getPrecoAtual() != null && dto.getImagemUrl() != null
+                        ? null
+                        : scraperClient.scrape(scraper, dto.getLink());
+
+        if (nomeInformado) {
             produto.setNome(dto.getNome());
         } else {
-            String nome = scraper.extractName(dto.getLink());
+            String nome = resultado.getName();
             if (nome == null || nome.isBlank()) {
                 throw new RuntimeException("Não foi possível extrair o nome do produto");
             }
@@ -93,13 +141,13 @@ public class ProdutoService {
         produto.setPrecoAtual(
                 dto.getPrecoAtual() != null
                         ? dto.getPrecoAtual()
-                        : scraper.extractPrice(dto.getLink())
+                        : resultado.requirePrice()
         );
 
         produto.setImagemUrl(
                 dto.getImagemUrl() != null
                         ? dto.getImagemUrl()
-                        : scraper.extractImage(dto.getLink())
+                        : resultado.getImage()
         );
     }
 
@@ -147,189 +195,219 @@ public class ProdutoService {
         produto.setUltimaAtualizacao(LocalDateTime.now());
 
         Produto salvo = produtoRepository.save(produto);
+        invalidadorCache.produtoAlterado(salvo);
         return mapToResponseDTO(salvo);
     }
 
-    public ProdutoResponseDTO atualizarPrecoAutomatico(Long produtoId) {
+    /**
+     * Aplica o resultado do scraping ao produto sem gravar nada. Devolve o histórico
+     * que deve ser gravado, ou null se o preço não mudou.
+     */
+    public ProdutoPrecoHistorico aplicarResultado(Produto produto, ScrapeResult resultado) {
+        BigDecimal novoPreco = resultado.requirePrice();
 
-        Produto produto = produtoRepository.findById(produtoId)
-                .orElseThrow(() -> new RuntimeException("Produto não encontrado"));
-
-        PriceScraper scraper = scraperFactory.getScraper(produto.getLink());
-
-        BigDecimal novoPreco = scraper.extractPrice(produto.getLink());
-
-        salvarHistoricoPreco(produto, novoPreco);
+        ProdutoPrecoHistorico historico = criarHistoricoSeMudou(produto, novoPreco);
 
         produto.setPrecoAtual(novoPreco);
-        produto.setImagemUrl(scraper.extractImage(produto.getLink()));
 
-        if (produto.getNome() == null || produto.getNome().isBlank()) {
-            produto.setNome(scraper.extractName(produto.getLink()));
+        String imagem = resultado.getImage();
+        if (imagem != null && !imagem.isBlank()) {
+            produto.setImagemUrl(imagem);
+        }
+
+        if ((produto.getNome() == null || produto.getNome().isBlank())
+                && resultado.getName() != null) {
+            produto.setNome(resultado.getName());
         }
 
         produto.setUltimaAtualizacao(LocalDateTime.now());
 
-        Produto salvo = produtoRepository.save(produto);
-        return mapToResponseDTO(salvo);
+        return historico;
     }
 
-    public List<ProdutoResponseDTO> atualizarPrecosDaLista(Long listaId) {
-
-        List<Produto> produtos = produtoRepository.findByListaId(listaId);
-        List<ProdutoResponseDTO> atualizados = new ArrayList<>();
+    private void salvarHistoricoPreco(Produto produto, BigDecimal novoPreco) {
+        salvarHistorico(criarHistoricoSeMudou(produto, novoPreco));
+    }
 
-        for (Produto produto : produtos) {
-            try {
-                PriceScraper scraper = scraperFactory.getScraper(produto.getLink());
+    private void salvarHistorico(ProdutoPrecoHistorico historico) {
+        if (historico != null) {
+            produtoPrecoHistoricoRepository.save(historico);
+            resumoDiarioPrecos.registrar(List.of(historico));
+            ultimoPrecoCache.registrar(historico.getProduto().getId(), historico.getPreco());
+            historicosGravados.increment();
+            avaliadorAlertas.avaliar(List.of(historico));
+        }
+    }
 
-                BigDecimal novoPreco = scraper.extractPrice(produto.getLink());
+    private ProdutoPrecoHistorico criarHistoricoSeMudou(Produto produto, BigDecimal novoPreco) {
 
-                salvarHistoricoPreco(produto, novoPreco);
+        if (novoPreco == null) {
+            return null;
+        }
 
-                produto.setPrecoAtual(novoPreco);
-                produto.setImagemUrl(scraper.extractImage(produto.getLink()));
+        BigDecimal ultimoRegistrado = ultimoPrecoCache.ultimoPreco(produto.getId());
+        BigDecimal precoAtual = produto.getPrecoAtual();
 
-                if (produto.getNome() == null || produto.getNome().isBlank()) {
-                    produto.setNome(scraper.extractName(produto.getLink()));
-                }
+        // Salva se for o primeiro histórico OU se o preço mudou
+        if (ultimoRegistrado == null || ultimoRegistrado.compareTo(novoPreco) != 0) {
 
-                produto.setUltimaAtualizacao(LocalDateTime.now());
+            ProdutoPrecoHistorico historico = new ProdutoPrecoHistorico();
+            historico.setProduto(produto);
+            historico.setPreco(novoPreco);
+            historico.setLoja(produto.getLoja().name());
+            historico.setDataColeta(LocalDateTime.now());
 
-                Produto salvo = produtoRepository.save(produto);
-                atualizados.add(mapToResponseDTO(salvo));
+            System.out.println(
+                    "[HISTÓRICO] Produto ID " + produto.getId() +
+                            " | De: R$ " + precoAtual +
+                            " | Para: R$ " + novoPreco
+            );
 
-            } catch (Exception e) {
-                System.err.println(
-                        "Erro ao atualizar produto ID " + produto.getId()
-                                + ": " + e.getMessage()
-                );
-            }
+            return historico;
         }
 
-        return atualizados;
+        return null;
     }
 
-    // Métodos que usam Job para atualizar preço e imagem
-    public void atualizarPrecosAutomaticamente() {
-        int pagina = 0;
-        int tamanhoLote = 20; // Processa 20 produtos por vez para poupar RAM
-        Page<Produto> paginaProdutos;
-
-        do {
-            // Busca apenas uma fatia dos dados
-            paginaProdutos = produtoRepository.findAll(PageRequest.of(pagina, tamanhoLote));
+    /**
+     * Histórico do período. Com maxPontos, reduz por LTTB (ver ReducaoHistorico) na
+     * mesma passada pela consulta, sem carregar todos os pontos.
+     */
+    @Transactional
+    public List<ProdutoPrecoHistoricoResponseDTO> obterHistoricoPreco(
+            Long produtoId,
+            LocalDateTime dataInicio,
+            LocalDateTime dataFim,
+            Integer maxPontos
+    ) {
+        if (maxPontos != null && maxPontos < 3) {
+            throw new IllegalArgumentException("maxPoints deve ser pelo menos 3");
+        }
 
-            // Processa o lote atual
-            processarLote(paginaProdutos.getContent());
+        validarProdutoExiste(produtoId);
 
-            // Avança para a próxima página
-            pagina++;
+        if (maxPontos == null) {
+            try (Stream<ProdutoPrecoHistoricoResponseDTO> pontos =
+                         produtoPrecoHistoricoRepository.buscarPontos(produtoId, dataInicio, dataFim)) {
+                return pontos.toList();
+            }
+        }
 
-            //Garbage Collector
-            System.gc();
+        // Os intervalos do LTTB cobrem só o trecho com dados, não o período pedido inteiro
+        Object[] limites = produtoPrecoHistoricoRepository.buscarLimites(produtoId, dataInicio, dataFim).get(0);
+        if (limites[0] == null) {
+            return List.of();
+        }
 
-        } while (paginaProdutos.hasNext());
+        try (Stream<ProdutoPrecoHistoricoResponseDTO> pontos =
+                     produtoPrecoHistoricoRepository.buscarPontos(produtoId, dataInicio, dataFim)) {
+            return ReducaoHistorico.lttb(
+                    pontos.iterator(),
+                    (LocalDateTime) limites[0],
+                    (LocalDateTime) limites[1],
+                    maxPontos
+            );
+        }
     }
 
+    /**
+     * Histórico do período agrupado em intervalos de duração fixa ("1h", "1d", "1w"...).
+     * Com maxPontos, o intervalo é alargado até o período caber nessa quantidade.
+     * Intervalos de dias inteiros saem do resumo diário, sem ler o histórico bruto,
+     * assim que a carga inicial do resumo tiver terminado.
+     */
     @Transactional
-    protected void processarLote(List<Produto> produtos) {
-        for (Produto produto : produtos) {
-            try {
-                System.out.println("Processando produto: " + produto.getId());
-
-                PriceScraper scraper = scraperFactory.getScraper(produto.getLink());
-                BigDecimal novoPreco = scraper.extractPrice(produto.getLink());
-
-                salvarHistoricoPreco(produto, novoPreco);
-
-                if (novoPreco != null) {
-                    produto.setPrecoAtual(novoPreco);
-                }
+    public List<PrecoOhlcResponseDTO> obterHistoricoOhlc(
+            Long produtoId,
+            LocalDateTime dataInicio,
+            LocalDateTime dataFim,
+            String intervalo,
+            Integer maxPontos
+    ) {
+        if (maxPontos != null && maxPontos < 1) {
+            throw new IllegalArgumentException("maxPoints deve ser positivo");
+        }
 
-                String imagem = scraper.extractImage(produto.getLink());
-                if (imagem != null && !imagem.isBlank()) {
-                    produto.setImagemUrl(imagem);
-                }
+        Duration duracao = ReducaoHistorico.intervalo(intervalo);
 
-                produto.setUltimaAtualizacao(LocalDateTime.now());
-                produtoRepository.save(produto);
+        validarProdutoExiste(produtoId);
 
-            } catch (Exception e) {
-                System.err.println("[JOB] Erro no ID " + produto.getId() + ": " + e.getMessage());
+        if (maxPontos != null) {
+            Object[] limites = produtoPrecoHistoricoRepository.buscarLimites(produtoId, dataInicio, dataFim).get(0);
+            if (limites[0] == null) {
+                return List.of();
             }
-        }
-    }
-
-    private void salvarHistoricoPreco(Produto produto, BigDecimal novoPreco) {
 
-        if (novoPreco == null) {
-            return;
+            // Os intervalos contam a partir de dataInicio, então o trecho até o último ponto precisa caber
+            Duration minima = Duration.between(dataInicio, (LocalDateTime) limites[1])
+                    .dividedBy(maxPontos)
+                    .plusSeconds(1);
+            if (minima.compareTo(duracao) > 0) {
+                duracao = ReducaoHistorico.emDiasInteiros(duracao)
+                        ? ReducaoHistorico.arredondarParaDias(minima)
+                        : minima;
+            }
         }
 
-        boolean existeHistorico =
-                produtoPrecoHistoricoRepository
-                        .existsByProdutoId(produto.getId());
+        // O preço de antes do período vale no começo dele e abre o primeiro intervalo
+        BigDecimal precoVigente = produtoPrecoHistoricoRepository.buscarPrecoVigente(produtoId, dataInicio);
 
-        BigDecimal precoAtual = produto.getPrecoAtual();
+        if (resumoDiarioPrecos.isCargaConcluida()
+                && ReducaoHistorico.emDiasInteiros(duracao)
+                && dataInicio.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+            try (Stream<ProdutoPrecoDiario> dias = produtoPrecoDiarioRepository.buscarDias(
+                    produtoId, dataInicio.toLocalDate(), dataFim.toLocalDate())) {
 
-        // Salva se for o primeiro histórico OU se o preço mudou
-        if (!existeHistorico || precoAtual == null || precoAtual.compareTo(novoPreco) != 0) {
-
-            ProdutoPrecoHistorico historico = new ProdutoPrecoHistorico();
-            historico.setProduto(produto);
-            historico.setPreco(novoPreco);
-            historico.setLoja(produto.getLoja().name());
+                return ReducaoHistorico.ohlcDiario(dias.iterator(), dataInicio, duracao, precoVigente);
+            }
+        }
 
-            produtoPrecoHistoricoRepository.save(historico);
+        try (Stream<ProdutoPrecoHistoricoResponseDTO> pontos =
+                     produtoPrecoHistoricoRepository.buscarPontos(produtoId, dataInicio, dataFim)) {
 
-            System.out.println(
-                    "[HISTÓRICO] Produto ID " + produto.getId() +
-                            " | De: R$ " + precoAtual +
-                            " | Para: R$ " + novoPreco
-            );
+            return ReducaoHistorico.ohlc(pontos.iterator(), dataInicio, duracao, precoVigente);
         }
     }
 
-    public List<ProdutoPrecoHistoricoResponseDTO> obterHistoricoPreco(
-            Long produtoId,
-            LocalDateTime dataInicio,
-            LocalDateTime dataFim
-    ) {
-
-        produtoRepository.findById(produtoId)
-                .orElseThrow(() -> new RuntimeException("Produto não encontrado"));
+    private void validarProdutoExiste(Long produtoId) {
+        if (!produtoRepository.existsById(produtoId)) {
+            throw new RuntimeException("Produto não encontrado");
+        }
+    }
 
-        List<ProdutoPrecoHistorico> historico =
-                produtoPrecoHistoricoRepository
-                        .findByProdutoIdAndDataColetaBetweenOrderByDataColetaAsc(
-                                produtoId,
-                                dataInicio,
-                                dataFim
-                        );
-
-        return historico.stream()
-                .map(h -> new ProdutoPrecoHistoricoResponseDTO(
-                        h.getPreco(),
-                        h.getDataColeta()
-                ))
-                .toList();
+    /**
+     * Lista inteira na ordem de cadastro; é a consulta que o front faz o tempo todo e a única em cache.
+     */
+    @Cacheable(CacheConfig.PRODUTOS_POR_LISTA)
+    public List<ProdutoResponseDTO> listarPorLista(Long listaId) {
+        return produtoRepository.buscarResumosPorLista(listaId, Pageable.unpaged(Sort.by("id"))).getContent();
     }
 
-    public List<Produto> listarPorLista(Long listaId) {
-        return produtoRepository.findByListaId(listaId);
+    public Page<ProdutoResponseDTO> listarPorLista(Long listaId, Pageable pageable) {
+        return produtoRepository.buscarResumosPorLista(listaId, pageable);
     }
 
+    @Cacheable(CacheConfig.TOTAL_LISTA)
     public BigDecimal totalDaLista(Long listaId) {
         return produtoRepository.calcularTotalPorLista(listaId);
     }
 
     @Transactional
     public void remover(Long produtoId) {
+        produtoRepository.findById(produtoId).ifPresent(produto -> {
+            invalidadorCache.produtoAlterado(produto);
+            scraperClient.esquecerPagina(produto.getLink());
+        });
+
         produtoPrecoHistoricoRepository.deleteByProdutoId(produtoId);
+        produtoPrecoDiarioRepository.deleteByProdutoId(produtoId);
+        alertaPrecoRepository.deleteByProdutoId(produtoId);
         produtoRepository.deleteById(produtoId);
+        ultimoPrecoCache.remover(produtoId);
+        avaliadorAlertas.removerProduto(produtoId);
     }
 
+    @Cacheable(CacheConfig.PRODUTO)
     public ProdutoResponseDTO buscarPorId(Long id) {
         Produto produto = produtoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Produto não encontrado"));
@@ -338,16 +416,7 @@ public class ProdutoService {
     }
 
     /* AUX */
-    private boolean hasScraper(String link) {
-        try {
-            scraperFactory.getScraper(link);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private ProdutoResponseDTO mapToResponseDTO(Produto produto) {
+    public ProdutoResponseDTO mapToResponseDTO(Produto produto) {
         ProdutoResponseDTO dto = new ProdutoResponseDTO();
         dto.setId(produto.getId());
         dto.setNome(produto.getNome());
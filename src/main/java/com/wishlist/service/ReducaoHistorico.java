@@ -0,0 +1,302 @@
+package com.wishlist.service;
+
+import com.wishlist.model.dto.PrecoOhlcResponseDTO;
+import com.wishlist.model.dto.ProdutoPrecoHistoricoResponseDTO;
+import com.wishlist.model.entity.ProdutoPrecoDiario;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reduz o histórico de preços para gráficos numa única passada pelos pontos em ordem de data.
+ *
+ * Os intervalos são fixos no tempo, contados do início do período pedido, então a memória
+ * não cresce com a quantidade de pontos: o OHLC guarda só o intervalo corrente e o LTTB
+ * (Largest-Triangle-Three-Buckets), os pontos de dois intervalos.
+ *
+ * O histórico só ganha ponto quando o preço muda, e o preço vale até o ponto seguinte.
+ * Por isso a abertura de um intervalo é o fechamento do anterior (a do primeiro, o preço
+ * que vigorava no início do período, quando há um) e também conta para a máxima e a
+ * mínima; intervalos sem mudança não geram ponto. O OHLC pode sair do histórico bruto ou
+ * do resumo diário, com o mesmo resultado para intervalos de dias.
+ */
+final class ReducaoHistorico {
+
+    private static final Duration DIA = Duration.ofDays(1);
+    private static final Pattern INTERVALO = Pattern.compile("(\\d+)\\s*([mhdw])");
+
+    private ReducaoHistorico() {
+    }
+
+    /**
+     * Converte "15m", "6h", "1d" ou "1w" em Duration.
+     *
+     * @throws IllegalArgumentException se o texto não estiver nesse formato
+     */
+    static Duration intervalo(String texto) {
+        Matcher matcher = INTERVALO.matcher(texto.trim().toLowerCase(Locale.ROOT));
+        if (!matcher.matches() || Long.parseLong(matcher.group(1)) == 0) {
+            throw new IllegalArgumentException("Intervalo inválido: " + texto + " (use 15m, 6h, 1d, 1w...)");
+        }
+
+        long quantidade = Long.parseLong(matcher.group(1));
+        return switch (matcher.group(2)) {
+            case "m" -> Duration.ofMinutes(quantidade);
+            case "h" -> Duration.ofHours(quantidade);
+            case "d" -> Duration.ofDays(quantidade);
+            default -> Duration.ofDays(quantidade * 7);
+        };
+    }
+
+    static boolean emDiasInteiros(Duration duracao) {
+        return duracao.toSeconds() % DIA.toSeconds() == 0;
+    }
+
+    static Duration arredondarParaDias(Duration duracao) {
+        long dias = (duracao.toSeconds() + DIA.toSeconds() - 1) / DIA.toSeconds();
+        return Duration.ofDays(dias);
+    }
+
+    /**
+     * precoVigente é o último preço antes de {@code inicio}, ou null se o histórico começa
+     * dentro do período.
+     */
+    static List<PrecoOhlcResponseDTO> ohlc(
+            Iterator<ProdutoPrecoHistoricoResponseDTO> pontos,
+            LocalDateTime inicio,
+            Duration intervalo,
+            BigDecimal precoVigente
+    ) {
+        AcumuladorOhlc acumulador = new AcumuladorOhlc(inicio, intervalo, precoVigente);
+        while (pontos.hasNext()) {
+            ProdutoPrecoHistoricoResponseDTO ponto = pontos.next();
+            BigDecimal preco = ponto.getPreco();
+            acumulador.somar(ponto.getDataColeta(), preco, preco, preco, preco, 1);
+        }
+        return acumulador.resultado;
+    }
+
+    /**
+     * Como {@link #ohlc}, a partir do resumo diário. O intervalo deve ser de dias inteiros
+     * e o início, meia-noite, para cada dia cair inteiro num intervalo.
+     */
+    static List<PrecoOhlcResponseDTO> ohlcDiario(
+            Iterator<ProdutoPrecoDiario> dias,
+            LocalDateTime inicio,
+            Duration intervalo,
+            BigDecimal precoVigente
+    ) {
+        AcumuladorOhlc acumulador = new AcumuladorOhlc(inicio, intervalo, precoVigente);
+        while (dias.hasNext()) {
+            ProdutoPrecoDiario dia = dias.next();
+            acumulador.somar(
+                    dia.getDia().atStartOfDay(),
+                    dia.getPrimeiro(),
+                    dia.getMaximo(),
+                    dia.getMinimo(),
+                    dia.getUltimo(),
+                    dia.getAmostras()
+            );
+        }
+        return acumulador.resultado;
+    }
+
+    /**
+     * No máximo {@code maxPontos} pontos: o primeiro, o último e, de cada um dos
+     * {@code maxPontos - 2} intervalos do período, o que forma o maior triângulo com o
+     * ponto escolhido antes e a média do intervalo seguinte. Se o período tem até
+     * {@code maxPontos} pontos, devolve todos.
+     */
+    static List<ProdutoPrecoHistoricoResponseDTO> lttb(
+            Iterator<ProdutoPrecoHistoricoResponseDTO> todos,
+            LocalDateTime inicio,
+            LocalDateTime fim,
+            int maxPontos
+    ) {
+        // Só um a mais que o limite fica na memória para saber se é preciso reduzir
+        List<ProdutoPrecoHistoricoResponseDTO> primeiros = new ArrayList<>();
+        while (todos.hasNext() && primeiros.size() <= maxPontos) {
+            primeiros.add(todos.next());
+        }
+        if (primeiros.size() <= maxPontos) {
+            return primeiros;
+        }
+
+        Iterator<ProdutoPrecoHistoricoResponseDTO> pontos = Stream.concat(
+                primeiros.stream(),
+                StreamSupport.stream(Spliterators.spliteratorUnknownSize(todos, Spliterator.ORDERED), false)
+        ).iterator();
+        List<ProdutoPrecoHistoricoResponseDTO> resultado = new ArrayList<>();
+
+        int intervalos = maxPontos - 2;
+        long inicioSeg = segundos(inicio);
+        double intervaloSeg = Math.max(1.0, (double) (segundos(fim) - inicioSeg) / intervalos);
+
+        ProdutoPrecoHistoricoResponseDTO escolhido = pontos.next();
+        resultado.add(escolhido);
+
+        // Intervalo completo que espera a média do seguinte para escolher seu ponto
+        List<ProdutoPrecoHistoricoResponseDTO> pendente = null;
+        List<ProdutoPrecoHistoricoResponseDTO> corrente = new ArrayList<>();
+        long indiceCorrente = 0;
+
+        while (pontos.hasNext()) {
+            ProdutoPrecoHistoricoResponseDTO ponto = pontos.next();
+            long indice = Math.max(0, Math.min(intervalos - 1,
+                    (long) ((segundos(ponto.getDataColeta()) - inicioSeg) / intervaloSeg)));
+
+            if (!corrente.isEmpty() && indice != indiceCorrente) {
+                if (pendente != null) {
+                    escolhido = maiorTriangulo(escolhido, pendente, mediaX(corrente), mediaY(corrente));
+                    resultado.add(escolhido);
+                }
+                pendente = corrente;
+                corrente = new ArrayList<>();
+            }
+
+            indiceCorrente = indice;
+            corrente.add(ponto);
+        }
+
+        if (corrente.isEmpty()) {
+            return resultado;
+        }
+
+        ProdutoPrecoHistoricoResponseDTO ultimo = corrente.remove(corrente.size() - 1);
+
+        if (pendente != null) {
+            escolhido = corrente.isEmpty()
+                    ? maiorTriangulo(escolhido, pendente, x(ultimo), y(ultimo))
+                    : maiorTriangulo(escolhido, pendente, mediaX(corrente), mediaY(corrente));
+            resultado.add(escolhido);
+        }
+        if (!corrente.isEmpty()) {
+            resultado.add(maiorTriangulo(escolhido, corrente, x(ultimo), y(ultimo)));
+        }
+        resultado.add(ultimo);
+
+        return resultado;
+    }
+
+    private static ProdutoPrecoHistoricoResponseDTO maiorTriangulo(
+            ProdutoPrecoHistoricoResponseDTO anterior,
+            List<ProdutoPrecoHistoricoResponseDTO> candidatos,
+            double proximoX,
+            double proximoY
+    ) {
+        double ax = x(anterior);
+        double ay = y(anterior);
+
+        ProdutoPrecoHistoricoResponseDTO melhor = candidatos.get(0);
+        double maiorArea = -1;
+
+        for (ProdutoPrecoHistoricoResponseDTO candidato : candidatos) {
+            // O dobro da área basta para comparar
+            double area = Math.abs(
+                    (ax - proximoX) * (y(candidato) - ay) - (ax - x(candidato)) * (proximoY - ay)
+            );
+            if (area > maiorArea) {
+                maiorArea = area;
+                melhor = candidato;
+            }
+        }
+        return melhor;
+    }
+
+    private static double mediaX(List<ProdutoPrecoHistoricoResponseDTO> pontos) {
+        double soma = 0;
+        for (ProdutoPrecoHistoricoResponseDTO ponto : pontos) {
+            soma += x(ponto);
+        }
+        return soma / pontos.size();
+    }
+
+    private static double mediaY(List<ProdutoPrecoHistoricoResponseDTO> pontos) {
+        double soma = 0;
+        for (ProdutoPrecoHistoricoResponseDTO ponto : pontos) {
+            soma += y(ponto);
+        }
+        return soma / pontos.size();
+    }
+
+    private static double x(ProdutoPrecoHistoricoResponseDTO ponto) {
+        return segundos(ponto.getDataColeta());
+    }
+
+    private static double y(ProdutoPrecoHistoricoResponseDTO ponto) {
+        return ponto.getPreco().doubleValue();
+    }
+
+    private static final class AcumuladorOhlc {
+
+        final List<PrecoOhlcResponseDTO> resultado = new ArrayList<>();
+        final LocalDateTime inicio;
+        final long inicioSeg;
+        final long intervaloSeg;
+
+        final BigDecimal precoVigente;
+
+        PrecoOhlcResponseDTO atual;
+        long indiceAtual;
+
+        AcumuladorOhlc(LocalDateTime inicio, Duration intervalo, BigDecimal precoVigente) {
+            this.inicio = inicio;
+            this.inicioSeg = segundos(inicio);
+            this.intervaloSeg = intervalo.getSeconds();
+            this.precoVigente = precoVigente;
+        }
+
+        void somar(
+                LocalDateTime momento,
+                BigDecimal abertura,
+                BigDecimal maxima,
+                BigDecimal minima,
+                BigDecimal fechamento,
+                int amostras
+        ) {
+            long indice = Math.floorDiv(segundos(momento) - inicioSeg, intervaloSeg);
+
+            if (atual == null || indice != indiceAtual) {
+                BigDecimal inicial = atual != null
+                        ? atual.getFechamento()
+                        : precoVigente != null ? precoVigente : abertura;
+                atual = new PrecoOhlcResponseDTO(
+                        inicio.plusSeconds(indice * intervaloSeg),
+                        inicial,
+                        inicial,
+                        inicial,
+                        inicial,
+                        0
+                );
+                indiceAtual = indice;
+                resultado.add(atual);
+            }
+
+            if (maxima.compareTo(atual.getMaxima()) > 0) {
+                atual.setMaxima(maxima);
+            }
+            if (minima.compareTo(atual.getMinima()) < 0) {
+                atual.setMinima(minima);
+            }
+            atual.setFechamento(fechamento);
+            atual.setAmostras(atual.getAmostras() + amostras);
+        }
+    }
+
+    // Só diferenças importam, então o fuso é indiferente
+    private static long segundos(LocalDateTime dataHora) {
+        return dataHora.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,108 @@
+package com.wishlist.service;
+
+import com.wishlist.model.enums.Loja;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de uma execução do motor de atualização de preços.
+ * Atualizado concorrentemente pelas threads de scraping e de persistência.
+ */
+public class RelatorioAtualizacao {
+
+    private final long inicioNanos = System.nanoTime();
+    private final LongAdder sucessos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder inalterados = new LongAdder();
+    private final Map<Loja, EstatisticaLoja> porLoja = new EnumMap<>(Loja.class);
+
+    public RelatorioAtualizacao() {
+        for (Loja loja : Loja.values()) {
+            porLoja.put(loja, new EstatisticaLoja());
+        }
+    }
+
+    void registrarScrape(Loja loja, long nanos, boolean sucesso) {
+        porLoja.get(loja).registrar(nanos, sucesso);
+    }
+
+    void registrarSucesso() {
+        sucessos.increment();
+    }
+
+    void registrarFalha() {
+        falhas.increment();
+    }
+
+    void registrarInalterado() {
+        inalterados.increment();
+    }
+
+    public long getSucessos() {
+        return sucessos.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    public long getInalterados() {
+        return inalterados.sum();
+    }
+
+    public Duration getDuracao() {
+        return Duration.ofNanos(System.nanoTime() - inicioNanos);
+    }
+
+    public String resumo() {
+        long total = getSucessos() + getFalhas() + getInalterados();
+        double segundos = Math.max(getDuracao().toMillis(), 1) / 1000.0;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(
+                "%d produtos em %.1fs (%.2f produtos/s) | sucesso: %d | sem alteração: %d | falha: %d",
+                total, segundos, total / segundos, getSucessos(), getInalterados(), getFalhas()
+        ));
+
+        porLoja.forEach((loja, estatistica) -> {
+            if (estatistica.quantidade.sum() > 0) {
+                sb.append(System.lineSeparator())
+                        .append("  ").append(loja).append(": ")
+                        .append(estatistica.resumo());
+            }
+        });
+        return sb.toString();
+    }
+
+    private static class EstatisticaLoja {
+
+        private final LongAdder quantidade = new LongAdder();
+        private final LongAdder falhas = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void registrar(long nanos, boolean sucesso) {
+            quantidade.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (!sucesso) {
+                falhas.increment();
+            }
+        }
+
+        String resumo() {
+            long n = quantidade.sum();
+            return String.format(
+                    "%d scrapes | falhas: %d | latência média: %dms | máxima: %dms",
+                    n,
+                    falhas.sum(),
+                    Duration.ofNanos(totalNanos.sum() / n).toMillis(),
+                    Duration.ofNanos(maxNanos.get()).toMillis()
+            );
+        }
+    }
+}
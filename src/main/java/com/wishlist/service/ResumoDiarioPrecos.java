@@ -0,0 +1,90 @@
+package com.wishlist.service;
+
+import com.wishlist.model.entity.ProdutoPrecoHistorico;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Mantém produto_preco_diario junto com o histórico: cada histórico gravado vira um
+ * upsert no dia dele, que funde mínimo, máximo, primeiro/último (pela data da coleta)
+ * e soma as amostras. A fusão não depende da ordem, então lotes e carga inicial
+ * podem chegar em qualquer sequência.
+ */
+@Component
+public class ResumoDiarioPrecos {
+
+    /**
+     * Cláusula de fusão do upsert. O MySQL aplica as atribuições em ordem, por isso
+     * primeiro/último são decididos antes de primeira_coleta/ultima_coleta mudarem.
+     */
+    public static final String FUSAO = """
+            ON DUPLICATE KEY UPDATE
+                minimo = LEAST(minimo, VALUES(minimo)),
+                maximo = GREATEST(maximo, VALUES(maximo)),
+                primeiro = CASE WHEN VALUES(primeira_coleta) < primeira_coleta
+                               THEN VALUES(primeiro) ELSE primeiro END,
+                primeira_coleta = LEAST(primeira_coleta, VALUES(primeira_coleta)),
+                ultimo = CASE WHEN VALUES(ultima_coleta) >= ultima_coleta
+                             THEN VALUES(ultimo) ELSE ultimo END,
+                ultima_coleta = GREATEST(ultima_coleta, VALUES(ultima_coleta)),
+                amostras = amostras + VALUES(amostras)
+            """;
+
+    /**
+     * Como o histórico, o dia só é somado se o produto ainda existe (a tabela não tem FK).
+     */
+    private static final String UPSERT = """
+            INSERT INTO produto_preco_diario
+                (produto_id, dia, minimo, maximo, primeiro, ultimo, amostras, primeira_coleta, ultima_coleta)
+            SELECT ?, ?, ?, ?, ?, ?, 1, ?, ? FROM DUAL
+            WHERE EXISTS (SELECT 1 FROM produto WHERE id = ?)
+            """ + FUSAO;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Até a carga inicial terminar, os dias com histórico anterior a ela estão incompletos
+    private volatile boolean cargaConcluida;
+
+    public ResumoDiarioPrecos(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Se a tabela já pode ser lida no lugar do histórico bruto. Falso desde a subida
+     * da aplicação até o CargaResumoDiarioJob confirmar que a carga inicial terminou.
+     */
+    public boolean isCargaConcluida() {
+        return cargaConcluida;
+    }
+
+    public void marcarCargaConcluida() {
+        cargaConcluida = true;
+    }
+
+    /**
+     * Soma os históricos aos dias deles, num batch JDBC. Deve rodar na mesma transação
+     * que grava os históricos, quando houver uma.
+     */
+    public void registrar(List<ProdutoPrecoHistorico> historicos) {
+        if (historicos.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT, historicos, historicos.size(), (ps, historico) -> {
+            Timestamp coleta = Timestamp.valueOf(historico.getDataColeta());
+            ps.setLong(1, historico.getProduto().getId());
+            ps.setDate(2, Date.valueOf(historico.getDataColeta().toLocalDate()));
+            ps.setBigDecimal(3, historico.getPreco());
+            ps.setBigDecimal(4, historico.getPreco());
+            ps.setBigDecimal(5, historico.getPreco());
+            ps.setBigDecimal(6, historico.getPreco());
+            ps.setTimestamp(7, coleta);
+            ps.setTimestamp(8, coleta);
+            ps.setLong(9, historico.getProduto().getId());
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package com.wishlist.service;
+
+import com.wishlist.model.entity.ProdutoPrecoHistorico;
+import com.wishlist.repository.ProdutoPrecoHistoricoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Último preço gravado no histórico de cada produto, mantido em memória para que
+ * a decisão de gravar um novo histórico não precise consultar o banco.
+ *
+ * É aquecido na inicialização com uma única consulta agregada e atualizado depois
+ * que cada histórico é gravado; o aquecimento não sobrescreve o que já foi registrado
+ * por gravações feitas enquanto ele rodava. Os preços ficam em centavos (a coluna tem
+ * escala 2) num mapa de long, o que mantém o índice pequeno mesmo com centenas de
+ * milhares de produtos.
+ */
+@Component
+public class UltimoPrecoCache {
+
+    private final ProdutoPrecoHistoricoRepository produtoPrecoHistoricoRepository;
+    private final LongLongHashMap centavosPorProduto = new LongLongHashMap(1024);
+
+    private volatile boolean aquecido;
+
+    public UltimoPrecoCache(ProdutoPrecoHistoricoRepository produtoPrecoHistoricoRepository) {
+        this.produtoPrecoHistoricoRepository = produtoPrecoHistoricoRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        List<Object[]> ultimos = produtoPrecoHistoricoRepository.buscarUltimoPrecoDeCadaProduto();
+
+        synchronized (this) {
+            for (Object[] linha : ultimos) {
+                registrarSeAusente((Long) linha[0], (BigDecimal) linha[1]);
+            }
+            aquecido = true;
+        }
+
+        System.out.println("[CACHE] Último preço carregado para " + ultimos.size() + " produtos");
+    }
+
+    /**
+     * Último preço registrado no histórico, ou null se o produto ainda não tem histórico.
+     */
+    public BigDecimal ultimoPreco(Long produtoId) {
+        synchronized (this) {
+            long centavos = centavosPorProduto.get(produtoId);
+            if (centavos != LongLongHashMap.AUSENTE) {
+                return BigDecimal.valueOf(centavos, 2);
+            }
+            if (aquecido) {
+                return null;
+            }
+        }
+
+        // Antes do aquecimento terminar, consulta o banco e guarda o resultado
+        BigDecimal preco = produtoPrecoHistoricoRepository
+                .findTopByProdutoIdOrderByDataColetaDesc(produtoId)
+                .map(ProdutoPrecoHistorico::getPreco)
+                .orElse(null);
+
+        if (preco != null) {
+            synchronized (this) {
+                registrarSeAusente(produtoId, preco);
+            }
+        }
+        return preco;
+    }
+
+    /**
+     * Registra o preço de um histórico já gravado (depois do commit).
+     */
+    public synchronized void registrar(Long produtoId, BigDecimal preco) {
+        centavosPorProduto.put(produtoId, paraCentavos(preco));
+    }
+
+    // Leituras do banco podem ser mais antigas que um registro feito enquanto consultavam
+    private void registrarSeAusente(Long produtoId, BigDecimal preco) {
+        if (centavosPorProduto.get(produtoId) == LongLongHashMap.AUSENTE) {
+            centavosPorProduto.put(produtoId, paraCentavos(preco));
+        }
+    }
+
+    public synchronized void remover(Long produtoId) {
+        centavosPorProduto.remove(produtoId);
+    }
+
+    private static long paraCentavos(BigDecimal preco) {
+        return preco.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,34 @@
+-- Esquema como o Hibernate criava com ddl-auto=update. Bancos que já existiam
+-- recebem o baseline na versão 1 (spring.flyway.baseline-on-migrate) e pulam este script.
+
+CREATE TABLE lista (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    nome       VARCHAR(255) NOT NULL,
+    descricao  VARCHAR(255),
+    created_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE produto (
+    id                 BIGINT        NOT NULL AUTO_INCREMENT,
+    nome               VARCHAR(255)  NOT NULL,
+    link               TEXT          NOT NULL,
+    loja               ENUM ('AMAZON', 'KABUM', 'MERCADO_LIVRE', 'ALIEXPRESS', 'DESCONHECIDA'),
+    preco_atual        DECIMAL(10, 2),
+    imagem_url         TEXT,
+    data_criacao       DATETIME(6)   NOT NULL,
+    ultima_atualizacao DATETIME(6),
+    lista_id           BIGINT        NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_produto_lista FOREIGN KEY (lista_id) REFERENCES lista (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE produto_preco_historico (
+    id          BIGINT         NOT NULL AUTO_INCREMENT,
+    produto_id  BIGINT         NOT NULL,
+    preco       DECIMAL(38, 2) NOT NULL,
+    loja        VARCHAR(255)   NOT NULL,
+    data_coleta DATETIME(6)    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_historico_produto FOREIGN KEY (produto_id) REFERENCES produto (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,7 @@
+-- As consultas de histórico filtram por produto e intervalo de data_coleta e ordenam
+-- por data_coleta: com (produto_id, data_coleta) elas viram uma varredura de faixa
+-- no índice, sem filesort. Preços cabem em DECIMAL(10,2), como produto.preco_atual.
+
+ALTER TABLE produto_preco_historico
+    MODIFY preco DECIMAL(10, 2) NOT NULL,
+    ADD INDEX idx_historico_produto_data (produto_id, data_coleta);
@@ -0,0 +1,40 @@
+-- Requisitos do MySQL para particionar por data_coleta: a coluna precisa fazer parte
+-- de toda chave única (inclusive a primária) e a tabela não pode ter chaves estrangeiras.
+-- A integridade com produto passa a ser da aplicação, que apaga o histórico junto
+-- com o produto ou a lista.
+
+-- O nome da FK depende de quem criou a tabela (V1 ou o Hibernate), então é buscado no catálogo
+SET @fk = (
+    SELECT CONSTRAINT_NAME
+    FROM information_schema.KEY_COLUMN_USAGE
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'produto_preco_historico'
+      AND COLUMN_NAME = 'produto_id'
+      AND REFERENCED_TABLE_NAME = 'produto'
+    LIMIT 1
+);
+SET @sql = IF(@fk IS NULL, 'DO 0', CONCAT('ALTER TABLE produto_preco_historico DROP FOREIGN KEY `', @fk, '`'));
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- O índice que sustentava a FK só em produto_id ficou redundante com idx_historico_produto_data
+SET @indice = (
+    SELECT INDEX_NAME
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'produto_preco_historico'
+      AND INDEX_NAME NOT IN ('PRIMARY', 'idx_historico_produto_data')
+    GROUP BY INDEX_NAME
+    HAVING COUNT(*) = 1 AND MAX(COLUMN_NAME) = 'produto_id'
+    LIMIT 1
+);
+SET @sql = IF(@indice IS NULL, 'DO 0', CONCAT('ALTER TABLE produto_preco_historico DROP INDEX `', @indice, '`'));
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- id continua AUTO_INCREMENT e primeiro na chave, então segue único na prática
+ALTER TABLE produto_preco_historico
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, data_coleta);
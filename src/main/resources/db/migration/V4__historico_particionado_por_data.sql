@@ -0,0 +1,18 @@
+-- Partições anuais por data_coleta. As consultas por intervalo de datas só tocam as
+-- partições do período, e apagar histórico antigo vira DROP PARTITION em vez de DELETE.
+--
+-- Manutenção: antes de a data de p_futuro ser alcançada, abrir o próximo ano com
+--   ALTER TABLE produto_preco_historico REORGANIZE PARTITION p_futuro INTO (
+--       PARTITION p2028 VALUES LESS THAN ('2029-01-01'),
+--       PARTITION p_futuro VALUES LESS THAN (MAXVALUE)
+--   );
+-- Enquanto p_futuro estiver vazia a reorganização é instantânea.
+
+ALTER TABLE produto_preco_historico
+    PARTITION BY RANGE COLUMNS (data_coleta) (
+        PARTITION p_anterior VALUES LESS THAN ('2025-01-01'),
+        PARTITION p2025 VALUES LESS THAN ('2026-01-01'),
+        PARTITION p2026 VALUES LESS THAN ('2027-01-01'),
+        PARTITION p2027 VALUES LESS THAN ('2028-01-01'),
+        PARTITION p_futuro VALUES LESS THAN (MAXVALUE)
+    );
@@ -0,0 +1,31 @@
+-- Mínimo, máximo, primeiro e último preço e número de históricos por produto e dia.
+-- A aplicação mantém a tabela com um upsert a cada histórico gravado; as consultas
+-- longas leem daqui em vez de varrer produto_preco_historico.
+
+CREATE TABLE produto_preco_diario (
+    produto_id      BIGINT         NOT NULL,
+    dia             DATE           NOT NULL,
+    minimo          DECIMAL(10, 2) NOT NULL,
+    maximo          DECIMAL(10, 2) NOT NULL,
+    primeiro        DECIMAL(10, 2) NOT NULL,
+    ultimo          DECIMAL(10, 2) NOT NULL,
+    amostras        INT            NOT NULL,
+    primeira_coleta DATETIME(6)    NOT NULL,
+    ultima_coleta   DATETIME(6)    NOT NULL,
+    PRIMARY KEY (produto_id, dia)
+) ENGINE = InnoDB;
+
+-- Carga inicial (CargaResumoDiarioJob): históricos até corte_historico_id entram pela carga,
+-- os posteriores pelo upsert da aplicação, então nenhum é contado duas vezes. A carga anda
+-- por faixas de produto e guarda o último id processado para retomar de onde parou.
+CREATE TABLE produto_preco_diario_carga (
+    id                 INT     NOT NULL,
+    corte_historico_id BIGINT  NOT NULL,
+    ultimo_produto_id  BIGINT  NOT NULL,
+    concluida          BOOLEAN NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+INSERT INTO produto_preco_diario_carga (id, corte_historico_id, ultimo_produto_id, concluida)
+SELECT 1, COALESCE(MAX(id), 0), 0, FALSE
+FROM produto_preco_historico;
@@ -0,0 +1,17 @@
+-- Regras de alerta de preço por produto, avaliadas em memória a cada histórico gravado
+-- (ver AvaliadorAlertas); o índice por produto serve à carga e à remoção do produto.
+
+CREATE TABLE alerta_preco (
+    id               BIGINT         NOT NULL AUTO_INCREMENT,
+    produto_id       BIGINT         NOT NULL,
+    tipo             ENUM ('PRECO_ALVO', 'QUEDA_PERCENTUAL', 'MENOR_PRECO_HISTORICO') NOT NULL,
+    valor            DECIMAL(10, 2),
+    preco_referencia DECIMAL(10, 2),
+    ativo            BOOLEAN        NOT NULL,
+    disparado        BOOLEAN        NOT NULL,
+    ultimo_disparo   DATETIME(6),
+    created_at       DATETIME(6)    NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_alerta_produto (produto_id),
+    CONSTRAINT fk_alerta_produto FOREIGN KEY (produto_id) REFERENCES produto (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,7 @@
+-- buscarPontos lê preco e data_coleta de um produto num intervalo. Com preco no fim de
+-- idx_historico_produto_data a consulta é respondida só pelo índice, sem buscar cada
+-- linha pela chave primária. O nome continua o mesmo: V3 e a entidade se referem a ele.
+
+ALTER TABLE produto_preco_historico
+    DROP INDEX idx_historico_produto_data,
+    ADD INDEX idx_historico_produto_data (produto_id, data_coleta, preco);
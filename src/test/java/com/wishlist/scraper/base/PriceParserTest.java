@@ -0,0 +1,79 @@
+package com.wishlist.scraper.base;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PriceParserTest {
+
+    @Test
+    void parseBrlLeValoresComPrefixoDeMoeda() {
+        assertEquals(new BigDecimal("1299.90"), PriceParser.parseBrl("R$ 1.299,90"));
+        assertEquals(new BigDecimal("1299.90"), PriceParser.parseBrl("R$ 1.299,90"));
+        assertEquals(new BigDecimal("50.00"), PriceParser.parseBrl("50,00"));
+        assertEquals(new BigDecimal("1234567"), PriceParser.parseBrl("1.234.567"));
+        assertEquals(new BigDecimal("1299.90"), PriceParser.parseBrl("1 299,90"));
+    }
+
+    @Test
+    void parseBrlAceitaEspacoDepoisDoNumero() {
+        assertEquals(new BigDecimal("10.00"), PriceParser.parseBrl("R$ 10,00  \n"));
+    }
+
+    @Test
+    void parseBrlRejeitaTextoDepoisDoNumero() {
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl("12x de R$ 50,00"));
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl("R$ 10,00 - R$ 20,00"));
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl("10,00 à vista"));
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl("10,"));
+    }
+
+    @Test
+    void parseBrlRejeitaSinal() {
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl("-10,00"));
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl("R$ -10,00"));
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl("- R$ 10,00"));
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl("+10,00"));
+    }
+
+    @Test
+    void parseBrlRejeitaTextoSemPrecoOuMalFormado() {
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl(null));
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl(""));
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl("R$"));
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl("1,234,56"));
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl("1,234.56"));
+        assertThrows(NumberFormatException.class, () -> PriceParser.parseBrl("1234567890123456789"));
+    }
+
+    @Test
+    void parseDecideOFormatoPeloUltimoSeparador() {
+        assertEquals(new BigDecimal("1234.56"), PriceParser.parse("1.234,56"));
+        assertEquals(new BigDecimal("1234.56"), PriceParser.parse("US $1,234.56"));
+        assertEquals(new BigDecimal("12.5"), PriceParser.parse("12.5"));
+        assertEquals(new BigDecimal("1234"), PriceParser.parse("1,234"));
+        assertEquals(new BigDecimal("1234567"), PriceParser.parse("1.234.567"));
+    }
+
+    @Test
+    void parseUsaOPrimeiroValorDeUmaFaixa() {
+        assertEquals(new BigDecimal("10.00"), PriceParser.parse("R$ 10,00 - R$ 20,00"));
+    }
+
+    @Test
+    void parseRejeitaSinalColadoAoNumero() {
+        assertNull(PriceParser.parse("-10.00"));
+        assertNull(PriceParser.parse("R$ -10,00"));
+        assertNull(PriceParser.parse("+5"));
+    }
+
+    @Test
+    void parseDevolveNullSemPreco() {
+        assertNull(PriceParser.parse(null));
+        assertNull(PriceParser.parse("indisponível"));
+    }
+}
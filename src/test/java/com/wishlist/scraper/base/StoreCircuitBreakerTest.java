@@ -0,0 +1,117 @@
+package com.wishlist.scraper.base;
+
+import com.wishlist.model.enums.Loja;
+import com.wishlist.scraper.base.StoreCircuitBreaker.Admissao;
+import com.wishlist.scraper.base.StoreCircuitBreaker.Estado;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StoreCircuitBreakerTest {
+
+    private static final Loja LOJA = Loja.KABUM;
+
+    private StoreCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void criar() {
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addFirst(new MapPropertySource("teste", Map.of(
+                "wishlist.scraper.circuit-breaker.janela", "4",
+                "wishlist.scraper.circuit-breaker.minimo-chamadas", "2",
+                "wishlist.scraper.circuit-breaker.espera-inicial-ms", "0",
+                "wishlist.scraper.circuit-breaker.sondas", "1"
+        )));
+        circuitBreaker = new StoreCircuitBreaker(env);
+    }
+
+    @Test
+    void abreComFalhasEFechaComASonda() {
+        abrir();
+
+        Admissao sonda = circuitBreaker.admitir(LOJA);
+        assertTrue(sonda.sonda());
+        assertEquals(Estado.MEIO_ABERTO, estado());
+
+        circuitBreaker.registrar(sonda, true);
+        assertEquals(Estado.FECHADO, estado());
+    }
+
+    @Test
+    void chamadaAdmitidaAntesDeAbrirNaoContaComoSonda() {
+        Admissao antiga = circuitBreaker.admitir(LOJA);
+        abrir();
+
+        Admissao sonda = circuitBreaker.admitir(LOJA);
+        circuitBreaker.registrar(antiga, true);
+        assertEquals(Estado.MEIO_ABERTO, estado());
+
+        circuitBreaker.registrar(sonda, true);
+        assertEquals(Estado.FECHADO, estado());
+    }
+
+    @Test
+    void falhaAntigaNaoReabreDuranteAMeiaAbertura() {
+        Admissao antiga = circuitBreaker.admitir(LOJA);
+        abrir();
+
+        circuitBreaker.admitir(LOJA);
+        circuitBreaker.registrar(antiga, false);
+        assertEquals(Estado.MEIO_ABERTO, estado());
+    }
+
+    @Test
+    void meiaAberturaSoAdmiteAsSondas() {
+        abrir();
+
+        circuitBreaker.admitir(LOJA);
+        assertThrows(CircuitoAbertoException.class, () -> circuitBreaker.admitir(LOJA));
+    }
+
+    @Test
+    void paginaSemPrecoNaoAbreOCircuito() {
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.registrar(circuitBreaker.admitir(LOJA), true);
+            circuitBreaker.registrarExtracao(LOJA, false);
+        }
+
+        StoreCircuitBreaker.Situacao situacao = situacao();
+        assertEquals(Estado.FECHADO, situacao.estado());
+        assertEquals(10, situacao.paginasSemPrecoSeguidas());
+
+        circuitBreaker.registrarExtracao(LOJA, true);
+        assertEquals(0, situacao().paginasSemPrecoSeguidas());
+    }
+
+    @Test
+    void semRetentativasForaDoEstadoFechado() {
+        assertTrue(circuitBreaker.gastarRetentativa(LOJA));
+        abrir();
+        assertFalse(circuitBreaker.gastarRetentativa(LOJA));
+    }
+
+    private void abrir() {
+        circuitBreaker.registrar(circuitBreaker.admitir(LOJA), false);
+        circuitBreaker.registrar(circuitBreaker.admitir(LOJA), false);
+        assertEquals(Estado.ABERTO, estado());
+    }
+
+    private Estado estado() {
+        return situacao().estado();
+    }
+
+    private StoreCircuitBreaker.Situacao situacao() {
+        return circuitBreaker.situacao().stream()
+                .filter(situacao -> situacao.loja() == LOJA)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,178 @@
+package com.wishlist.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongLongHashMapTest {
+
+    // Capacidade inicial 16: 9 chaves cabem sem redimensionar (limite de carga 0,6)
+    private static final int POSICOES = 16;
+
+    @Test
+    void guardaSobrescreveERemove() {
+        LongLongHashMap mapa = new LongLongHashMap(4);
+
+        mapa.put(7, 100);
+        mapa.put(7, 200);
+        mapa.put(8, 300);
+
+        assertEquals(2, mapa.size());
+        assertEquals(200, mapa.get(7));
+        assertEquals(LongLongHashMap.AUSENTE, mapa.get(9));
+
+        mapa.remove(7);
+        mapa.remove(9);
+
+        assertEquals(1, mapa.size());
+        assertEquals(LongLongHashMap.AUSENTE, mapa.get(7));
+        assertEquals(300, mapa.get(8));
+    }
+
+    @Test
+    void recusaChaveNaoPositiva() {
+        LongLongHashMap mapa = new LongLongHashMap(4);
+
+        assertThrows(IllegalArgumentException.class, () -> mapa.put(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> mapa.put(-5, 1));
+    }
+
+    @Test
+    void removerDoMeioDaCadeiaMantemOsSeguintesAlcancaveis() {
+        LongLongHashMap mapa = new LongLongHashMap(4);
+        List<Long> colididas = chavesComIndice(3, 4);
+        colididas.forEach(chave -> mapa.put(chave, chave * 10));
+
+        // As quatro ocupam as posições 3 a 6; tirar a segunda obriga a puxar as duas seguintes
+        mapa.remove(colididas.get(1));
+
+        assertEquals(LongLongHashMap.AUSENTE, mapa.get(colididas.get(1)));
+        for (long chave : List.of(colididas.get(0), colididas.get(2), colididas.get(3))) {
+            assertEquals(chave * 10, mapa.get(chave));
+        }
+        assertEquals(3, mapa.size());
+    }
+
+    @Test
+    void removerNaoPuxaChaveQueJaEstaNaPosicaoIdeal() {
+        LongLongHashMap mapa = new LongLongHashMap(4);
+        long a = chavesComIndice(3, 1).get(0);
+        long b = chavesComIndice(3, 2).get(1);
+        long c = chavesComIndice(5, 1).get(0);
+
+        // a em 3, b desloca para 4, c fica na própria posição 5
+        mapa.put(a, 1);
+        mapa.put(b, 2);
+        mapa.put(c, 3);
+        mapa.remove(a);
+
+        assertEquals(2, mapa.get(b));
+        assertEquals(3, mapa.get(c));
+        mapa.remove(b);
+        assertEquals(3, mapa.get(c));
+        assertEquals(1, mapa.size());
+    }
+
+    @Test
+    void removerComCadeiaQueDaAVoltaNoFimDoVetor() {
+        LongLongHashMap mapa = new LongLongHashMap(4);
+        List<Long> noFim = chavesComIndice(POSICOES - 2, 4);
+        long noInicio = chavesComIndice(1, 1).get(0);
+
+        // Ocupam 14, 15, 0 e 1; a de índice ideal 1 vai para 2
+        noFim.forEach(chave -> mapa.put(chave, chave));
+        mapa.put(noInicio, noInicio);
+
+        mapa.remove(noFim.get(0));
+        mapa.remove(noFim.get(2));
+
+        assertEquals(LongLongHashMap.AUSENTE, mapa.get(noFim.get(0)));
+        assertEquals(LongLongHashMap.AUSENTE, mapa.get(noFim.get(2)));
+        assertEquals(noFim.get(1), mapa.get(noFim.get(1)));
+        assertEquals(noFim.get(3), mapa.get(noFim.get(3)));
+        assertEquals(noInicio, mapa.get(noInicio));
+        assertEquals(3, mapa.size());
+    }
+
+    @Test
+    void redimensionaSemPerderEntradas() {
+        LongLongHashMap mapa = new LongLongHashMap(4);
+        List<Long> colididas = chavesComIndice(7, 9);
+        colididas.forEach(chave -> mapa.put(chave, -chave));
+
+        for (long chave = 1; chave <= 5000; chave++) {
+            mapa.put(chave, chave * 3);
+        }
+
+        assertEquals(5000 + colididas.stream().filter(chave -> chave > 5000).count(), mapa.size());
+        for (long chave = 1; chave <= 5000; chave++) {
+            assertEquals(chave * 3, mapa.get(chave));
+        }
+        for (long chave : colididas) {
+            if (chave > 5000) {
+                assertEquals(-chave, mapa.get(chave));
+            }
+        }
+    }
+
+    @Test
+    void clearEsvaziaEContinuaUsavel() {
+        LongLongHashMap mapa = new LongLongHashMap(4);
+        for (long chave = 1; chave <= 100; chave++) {
+            mapa.put(chave, chave);
+        }
+
+        mapa.clear();
+
+        assertEquals(0, mapa.size());
+        assertEquals(LongLongHashMap.AUSENTE, mapa.get(50));
+        mapa.put(50, 5);
+        assertEquals(5, mapa.get(50));
+    }
+
+    @Test
+    void operacoesAleatoriasBatemComHashMap() {
+        LongLongHashMap mapa = new LongLongHashMap(4);
+        Map<Long, Long> esperado = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long chave = 1 + random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                mapa.remove(chave);
+                esperado.remove(chave);
+            } else {
+                long valor = random.nextLong();
+                mapa.put(chave, valor);
+                esperado.put(chave, valor);
+            }
+        }
+
+        assertEquals(esperado.size(), mapa.size());
+        for (long chave = 1; chave <= 2000; chave++) {
+            assertEquals(esperado.getOrDefault(chave, LongLongHashMap.AUSENTE), mapa.get(chave));
+        }
+    }
+
+    /**
+     * As primeiras chaves cujo índice ideal, numa tabela de {@link #POSICOES} posições,
+     * é o informado. Repete o espalhamento do mapa para forçar colisões.
+     */
+    private static List<Long> chavesComIndice(int indice, int quantidade) {
+        List<Long> chaves = new ArrayList<>();
+        for (long chave = 1; chaves.size() < quantidade; chave++) {
+            long h = chave * 0x9E3779B97F4A7C15L;
+            if (((int) (h ^ (h >>> 32)) & (POSICOES - 1)) == indice) {
+                chaves.add(chave);
+            }
+        }
+        return chaves;
+    }
+}
@@ -0,0 +1,212 @@
+package com.wishlist.service;
+
+import com.wishlist.model.dto.PrecoOhlcResponseDTO;
+import com.wishlist.model.dto.ProdutoPrecoHistoricoResponseDTO;
+import com.wishlist.model.entity.ProdutoPrecoDiario;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReducaoHistoricoTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 3, 1, 0, 0);
+    private static final Duration DIA = Duration.ofDays(1);
+
+    @Test
+    void lttbDevolveTodosOsPontosQuandoCabem() {
+        List<ProdutoPrecoHistoricoResponseDTO> pontos = serie(10, 10, 12, 11, 15);
+        LocalDateTime fim = pontos.get(pontos.size() - 1).getDataColeta();
+
+        assertEquals(pontos, ReducaoHistorico.lttb(pontos.iterator(), INICIO, fim, 5));
+        assertEquals(pontos, ReducaoHistorico.lttb(pontos.iterator(), INICIO, fim, 300));
+    }
+
+    @Test
+    void lttbSemPontosDevolveListaVazia() {
+        assertTrue(ReducaoHistorico.lttb(List.<ProdutoPrecoHistoricoResponseDTO>of().iterator(), INICIO, INICIO, 3).isEmpty());
+    }
+
+    @Test
+    void lttbReduzMantendoPrimeiroUltimoEOrdem() {
+        List<ProdutoPrecoHistoricoResponseDTO> pontos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            pontos.add(ponto(i, 100 + (i % 7)));
+        }
+        LocalDateTime fim = pontos.get(99).getDataColeta();
+
+        List<ProdutoPrecoHistoricoResponseDTO> reduzidos = ReducaoHistorico.lttb(pontos.iterator(), INICIO, fim, 10);
+
+        assertTrue(reduzidos.size() <= 10);
+        assertSame(pontos.get(0), reduzidos.get(0));
+        assertSame(pontos.get(99), reduzidos.get(reduzidos.size() - 1));
+        for (int i = 1; i < reduzidos.size(); i++) {
+            assertTrue(reduzidos.get(i - 1).getDataColeta().isBefore(reduzidos.get(i).getDataColeta()));
+        }
+    }
+
+    @Test
+    void lttbMantemOPicoDoIntervalo() {
+        List<ProdutoPrecoHistoricoResponseDTO> pontos = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            pontos.add(ponto(i, i == 14 ? 500 : 100));
+        }
+        LocalDateTime fim = pontos.get(29).getDataColeta();
+
+        List<ProdutoPrecoHistoricoResponseDTO> reduzidos = ReducaoHistorico.lttb(pontos.iterator(), INICIO, fim, 5);
+
+        assertTrue(reduzidos.contains(pontos.get(14)));
+    }
+
+    @Test
+    void ohlcAbreComOPrecoVigenteAntesDoPeriodo() {
+        List<ProdutoPrecoHistoricoResponseDTO> pontos = List.of(
+                new ProdutoPrecoHistoricoResponseDTO(preco(90), INICIO.plusHours(5)),
+                new ProdutoPrecoHistoricoResponseDTO(preco(95), INICIO.plusHours(9))
+        );
+
+        List<PrecoOhlcResponseDTO> ohlc = ReducaoHistorico.ohlc(pontos.iterator(), INICIO, DIA, preco(100));
+
+        assertEquals(1, ohlc.size());
+        assertOhlc(ohlc.get(0), INICIO, 100, 100, 90, 95, 2);
+    }
+
+    @Test
+    void ohlcSemPrecoVigenteAbreNoPrimeiroPonto() {
+        List<ProdutoPrecoHistoricoResponseDTO> pontos = List.of(
+                new ProdutoPrecoHistoricoResponseDTO(preco(90), INICIO.plusHours(5)),
+                new ProdutoPrecoHistoricoResponseDTO(preco(95), INICIO.plusHours(9))
+        );
+
+        List<PrecoOhlcResponseDTO> ohlc = ReducaoHistorico.ohlc(pontos.iterator(), INICIO, DIA, null);
+
+        assertOhlc(ohlc.get(0), INICIO, 90, 95, 90, 95, 2);
+    }
+
+    @Test
+    void ohlcPontoNaBordaAbreOIntervaloSeguinte() {
+        List<ProdutoPrecoHistoricoResponseDTO> pontos = List.of(
+                new ProdutoPrecoHistoricoResponseDTO(preco(80), INICIO.plusDays(1).minusSeconds(1)),
+                new ProdutoPrecoHistoricoResponseDTO(preco(85), INICIO.plusDays(1))
+        );
+
+        List<PrecoOhlcResponseDTO> ohlc = ReducaoHistorico.ohlc(pontos.iterator(), INICIO, DIA, preco(100));
+
+        assertEquals(2, ohlc.size());
+        assertOhlc(ohlc.get(0), INICIO, 100, 100, 80, 80, 1);
+        assertOhlc(ohlc.get(1), INICIO.plusDays(1), 80, 85, 80, 85, 1);
+    }
+
+    @Test
+    void ohlcPulaIntervalosSemMudanca() {
+        List<ProdutoPrecoHistoricoResponseDTO> pontos = List.of(
+                new ProdutoPrecoHistoricoResponseDTO(preco(80), INICIO.plusHours(1)),
+                new ProdutoPrecoHistoricoResponseDTO(preco(70), INICIO.plusDays(2).plusHours(1))
+        );
+
+        List<PrecoOhlcResponseDTO> ohlc = ReducaoHistorico.ohlc(pontos.iterator(), INICIO, DIA, null);
+
+        assertEquals(2, ohlc.size());
+        assertOhlc(ohlc.get(1), INICIO.plusDays(2), 80, 80, 70, 70, 1);
+    }
+
+    @Test
+    void ohlcDiarioIgualAoHistoricoBruto() {
+        List<ProdutoPrecoHistoricoResponseDTO> pontos = List.of(
+                new ProdutoPrecoHistoricoResponseDTO(preco(90), INICIO.plusHours(3)),
+                new ProdutoPrecoHistoricoResponseDTO(preco(110), INICIO.plusHours(20)),
+                new ProdutoPrecoHistoricoResponseDTO(preco(105), INICIO.plusDays(3).plusHours(2))
+        );
+        List<ProdutoPrecoDiario> dias = List.of(
+                dia(INICIO, 90, 110, 90, 110, 2),
+                dia(INICIO.plusDays(3), 105, 105, 105, 105, 1)
+        );
+        Duration semana = Duration.ofDays(7);
+
+        List<PrecoOhlcResponseDTO> bruto = ReducaoHistorico.ohlc(pontos.iterator(), INICIO, DIA, preco(100));
+        List<PrecoOhlcResponseDTO> diario = ReducaoHistorico.ohlcDiario(dias.iterator(), INICIO, DIA, preco(100));
+
+        assertEquals(bruto.size(), diario.size());
+        for (int i = 0; i < bruto.size(); i++) {
+            PrecoOhlcResponseDTO esperado = bruto.get(i);
+            assertOhlc(
+                    diario.get(i),
+                    esperado.getInicio(),
+                    esperado.getAbertura().intValue(),
+                    esperado.getMaxima().intValue(),
+                    esperado.getMinima().intValue(),
+                    esperado.getFechamento().intValue(),
+                    esperado.getAmostras()
+            );
+        }
+
+        List<PrecoOhlcResponseDTO> porSemana = ReducaoHistorico.ohlcDiario(dias.iterator(), INICIO, semana, preco(100));
+        assertEquals(1, porSemana.size());
+        assertOhlc(porSemana.get(0), INICIO, 100, 110, 90, 105, 3);
+    }
+
+    @Test
+    void intervaloAceitaUnidadesERecusaZero() {
+        assertEquals(Duration.ofMinutes(15), ReducaoHistorico.intervalo("15m"));
+        assertEquals(Duration.ofDays(14), ReducaoHistorico.intervalo(" 2W "));
+        assertThrows(IllegalArgumentException.class, () -> ReducaoHistorico.intervalo("0d"));
+        assertThrows(IllegalArgumentException.class, () -> ReducaoHistorico.intervalo("1y"));
+    }
+
+    @Test
+    void semPontosNaoHaIntervalos() {
+        assertTrue(ReducaoHistorico.ohlc(List.<ProdutoPrecoHistoricoResponseDTO>of().iterator(), INICIO, DIA, preco(100)).isEmpty());
+    }
+
+    private static List<ProdutoPrecoHistoricoResponseDTO> serie(int... precos) {
+        List<ProdutoPrecoHistoricoResponseDTO> pontos = new ArrayList<>();
+        for (int i = 0; i < precos.length; i++) {
+            pontos.add(ponto(i, precos[i]));
+        }
+        return pontos;
+    }
+
+    private static ProdutoPrecoHistoricoResponseDTO ponto(int hora, int preco) {
+        return new ProdutoPrecoHistoricoResponseDTO(preco(preco), INICIO.plusHours(hora));
+    }
+
+    private static ProdutoPrecoDiario dia(LocalDateTime dia, int primeiro, int maximo, int minimo, int ultimo, int amostras) {
+        return ProdutoPrecoDiario.builder()
+                .dia(dia.toLocalDate())
+                .primeiro(preco(primeiro))
+                .maximo(preco(maximo))
+                .minimo(preco(minimo))
+                .ultimo(preco(ultimo))
+                .amostras(amostras)
+                .build();
+    }
+
+    private static BigDecimal preco(int valor) {
+        return BigDecimal.valueOf(valor);
+    }
+
+    private static void assertOhlc(
+            PrecoOhlcResponseDTO ohlc,
+            LocalDateTime inicio,
+            int abertura,
+            int maxima,
+            int minima,
+            int fechamento,
+            int amostras
+    ) {
+        assertEquals(inicio, ohlc.getInicio());
+        assertEquals(preco(abertura), ohlc.getAbertura());
+        assertEquals(preco(maxima), ohlc.getMaxima());
+        assertEquals(preco(minima), ohlc.getMinima());
+        assertEquals(preco(fechamento), ohlc.getFechamento());
+        assertEquals(amostras, ohlc.getAmostras());
+    }
+}